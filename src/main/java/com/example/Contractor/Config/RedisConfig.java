@@ -1,10 +1,16 @@
 package com.example.Contractor.Config;
 
+import com.example.Contractor.Service.Cached.ContractorCachedService;
+import com.example.Contractor.search.ContractorSearchIndex;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
@@ -13,10 +19,14 @@ import java.time.Duration;
 /**
  * Sets some configuration for Redis.
  * Defines ttl of cached values; sets serializer for cached values.
+ * Subscribes Contractor cache and search index (if enabled) to eviction messages of other instances.
  */
 @Configuration
 public class RedisConfig {
 
+    @Value("${app.contractor.cache.l2.ttl}")
+    private long contractorTtl;
+
     @Bean
     public RedisCacheConfiguration cacheConfiguration() {
         return RedisCacheConfiguration.defaultCacheConfig()
@@ -34,7 +44,21 @@ public class RedisConfig {
         return RedisCacheManager
                 .builder(connectionFactory)
                 .cacheDefaults(cacheConfiguration())
+                .withCacheConfiguration(ContractorCachedService.CACHE_NAME,
+                        cacheConfiguration().entryTtl(Duration.ofMillis(contractorTtl)))
                 .build();
     }
 
+    @Bean
+    public RedisMessageListenerContainer listenerContainer(RedisConnectionFactory connectionFactory,
+                                                           ContractorCachedService contractorCachedService,
+                                                           ObjectProvider<ContractorSearchIndex> searchIndex) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        ChannelTopic evictTopic = new ChannelTopic(ContractorCachedService.EVICT_CHANNEL);
+        container.addMessageListener(contractorCachedService, evictTopic);
+        searchIndex.ifAvailable(index -> container.addMessageListener(index, evictTopic));
+        return container;
+    }
+
 }
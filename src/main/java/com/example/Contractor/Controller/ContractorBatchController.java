@@ -0,0 +1,66 @@
+package com.example.Contractor.Controller;
+
+import com.example.Contractor.DTO.BatchItemResult;
+import com.example.Contractor.batch.ContractorBatchImporter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Handles batch saving requests of Contractor entities.
+ * <p>
+ * Request body is read as stream, so batch size is not limited by heap.
+ */
+@RestController
+@RequestMapping("/contractor")
+@RequiredArgsConstructor
+public class ContractorBatchController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContractorBatchController.class);
+
+    private final ContractorBatchImporter importer;
+
+    /**
+     * Responsible for adding or updating all passed {@code Contractor} instances.
+     * <p>
+     * Receives JSON array of {@code Contractor} instances as request body.
+     * Items are saved in chunks, so one rejected item does not reject the whole batch.
+     *
+     * @param request request holding JSON array as body
+     * @return result of each item and http OK status;
+     * BAD_REQUEST status if body is not JSON array
+     */
+    @Operation(summary = "Add or update Contractor list",
+            description = "Saves every item of JSON array and returns result of each one")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Contractor list processed"),
+            @ApiResponse(responseCode = "400", description = "Request body is not JSON array")
+    })
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> saveBatch(HttpServletRequest request) {
+        long start = System.currentTimeMillis();
+        try (InputStream input = request.getInputStream()) {
+            List<BatchItemResult> results = importer.importAll(input);
+            LOGGER.info("Contractor batch saved {}", String.format("{ \"items\":%d, \"millis\":%d }",
+                    results.size(), System.currentTimeMillis() - start));
+            return new ResponseEntity<>(results, HttpStatus.OK);
+        } catch (IOException exception) {
+            return new ResponseEntity<>(exception.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+}
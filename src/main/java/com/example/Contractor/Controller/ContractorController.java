@@ -2,6 +2,7 @@ package com.example.Contractor.Controller;
 
 import com.example.Contractor.DTO.Contractor;
 import com.example.Contractor.DTO.ContractorSearch;
+import com.example.Contractor.DTO.SearchMode;
 import org.springframework.http.ResponseEntity;
 
 /**
@@ -45,4 +46,18 @@ public interface ContractorController {
      */
     ResponseEntity<?> search(ContractorSearch search, int page, int size);
 
+    /**
+     * Retrieves Contactor entities by passed parameters.
+     * Results will be partitioned as pages; if cursor is passed, page starts right after it.
+     *
+     * @param search contains filtering fields
+     * @param page number of returning page; ignored if cursor is passed
+     * @param size size (amount of Contractor entities) of page
+     * @param cursor position of the last entity of previous page; may be null
+     * @param mode matching mode of free-text field; FULL_TEXT orders results by relevance and ignores cursor
+     * @param count whether amount of matched entities must be returned
+     * @return matched Contactor entities
+     */
+    ResponseEntity<?> search(ContractorSearch search, int page, int size, String cursor, SearchMode mode, boolean count);
+
 }
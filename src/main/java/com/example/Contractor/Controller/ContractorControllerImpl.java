@@ -2,9 +2,12 @@ package com.example.Contractor.Controller;
 
 import com.example.Contractor.DTO.Contractor;
 import com.example.Contractor.DTO.ContractorSearch;
+import com.example.Contractor.DTO.ContractorSearchCursor;
 import com.example.Contractor.DTO.Country;
 import com.example.Contractor.DTO.Industry;
 import com.example.Contractor.DTO.OrgForm;
+import com.example.Contractor.DTO.SearchCount;
+import com.example.Contractor.DTO.SearchMode;
 import com.example.Contractor.Service.ContractorService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -16,6 +19,7 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -43,6 +47,26 @@ public class ContractorControllerImpl implements ContractorController {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ContractorControllerImpl.class);
 
+    /**
+     * Response header holding cursor of the next search page.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Response header telling if there are more search results after returned page.
+     */
+    public static final String HAS_MORE_HEADER = "X-Has-More";
+
+    /**
+     * Response header holding amount of matched entities.
+     */
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    /**
+     * Response header telling if {@value #TOTAL_COUNT_HEADER} is exact or estimated.
+     */
+    public static final String TOTAL_COUNT_EXACT_HEADER = "X-Total-Count-Exact";
+
     private final ContractorService service;
 
     /**
@@ -159,24 +183,52 @@ public class ContractorControllerImpl implements ContractorController {
         }
     }
 
+    /**
+     * Responsible for providing {@code Contractor} instances with sorting and paging.
+     * <p>
+     * Same as {@link #search(ContractorSearch, int, int, String, SearchMode, boolean)} without cursor and count in CONTAINS mode.
+     *
+     * @param contractorSearch contains the sorting fields
+     * @param page number of result page that will be returned
+     * @param size amount of returned {@link Contractor} entities
+     * @return {@code Contractor} instances that match the given condition (in {@code contactorSearch});
+     * returned instances count will be no more than page size
+     */
+    @Override
+    public ResponseEntity<?> search(ContractorSearch contractorSearch, int page, int size) {
+        return search(contractorSearch, page, size, null, SearchMode.CONTAINS, false);
+    }
+
     /**
      * Responsible for providing {@code Contractor} instances with sorting and paging.
      * <p>
      * Receives {@link ContractorSearch} instance as request body.
+     * In CONTAINS mode results are ordered by name and id. If {@code cursor} is passed, page starts right after it
+     * and {@code page} is ignored; otherwise offset paging is used.
+     * Cursor of the next page is returned in {@value #NEXT_CURSOR_HEADER} header if there are more results.
+     * In FULL_TEXT mode results are ordered by relevance and paged by offset; cursor is not used.
+     * {@value #HAS_MORE_HEADER} header tells if next page is not empty. If {@code count} is passed, amount of
+     * matched entities is returned in {@value #TOTAL_COUNT_HEADER} header; it is exact below configured threshold,
+     * otherwise estimated, as told by {@value #TOTAL_COUNT_EXACT_HEADER} header.
      * Throw RuntimeException if something goes wrong -
      * it is assumed that it will be catched by global exception handler.
      *
      * @param contractorSearch contains the sorting fields
      * @param page number of result page that will be returned
      * @param size amount of returned {@link Contractor} entities
+     * @param cursor token from {@value #NEXT_CURSOR_HEADER} header of previous page
+     * @param mode matching mode of free-text field
+     * @param count whether amount of matched entities must be returned
      * @return {@code Contractor} instances that match the given condition (in {@code contactorSearch});
-     * returned instances count will be no more than page size
+     * returned instances count will be no more than page size; BAD_REQUEST if cursor is malformed
      */
     @Operation(summary = "Retrieve Contractor list based on passed parameters")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Contractor list retrieved",
                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = Contractor.class)))),
             @ApiResponse(responseCode = "204", description = "Contractor list not retrieved - there are no matched entities"),
+            @ApiResponse(responseCode = "400", description = "Contractor list not retrieved - malformed cursor",
+                    content = @Content(schema = @Schema(type = "string", example = "error message"))),
             @ApiResponse(responseCode = "500", description = "Contractor searching was failed",
                     content = @Content(schema = @Schema(type = "string", example = "error message")))
     })
@@ -185,15 +237,47 @@ public class ContractorControllerImpl implements ContractorController {
     public ResponseEntity<?> search(
             @RequestBody ContractorSearch contractorSearch,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "CONTAINS") SearchMode mode,
+            @RequestParam(defaultValue = "false") boolean count) {
+        ContractorSearchCursor after = null;
+        if (mode == SearchMode.CONTAINS && cursor != null) {
+            try {
+                after = ContractorSearchCursor.decode(cursor);
+            } catch (IllegalArgumentException exception) {
+                LOGGER.warn("Contractor list not obtained; Malformed cursor - {}", cursor);
+                return new ResponseEntity<>("Malformed search cursor.", HttpStatus.BAD_REQUEST);
+            }
+        }
         try {
-            List<Contractor> contractors = service.search(contractorSearch, page, size);
+            List<Contractor> contractors;
+            if (mode == SearchMode.FULL_TEXT) {
+                contractors = service.searchRanked(contractorSearch, page, size);
+            } else if (after == null) {
+                contractors = service.search(contractorSearch, page, size);
+            } else {
+                contractors = service.searchAfter(contractorSearch, after, size);
+            }
+            HttpHeaders headers = new HttpHeaders();
+            if (count) {
+                SearchCount total = service.count(contractorSearch, mode);
+                headers.set(TOTAL_COUNT_HEADER, String.valueOf(total.getCount()));
+                headers.set(TOTAL_COUNT_EXACT_HEADER, String.valueOf(total.isExact()));
+            }
             if (!contractors.isEmpty()) {
                 LOGGER.info("Contractor list obtained {}", String.format("{ \"count\":%d }", contractors.size()));
-                return new ResponseEntity<>(contractors, HttpStatus.OK);
+                boolean hasMore = contractors.size() >= size
+                        && service.hasMore(contractorSearch, mode, page, size, contractors.getLast());
+                headers.set(HAS_MORE_HEADER, String.valueOf(hasMore));
+                if (hasMore && mode == SearchMode.CONTAINS) {
+                    headers.set(NEXT_CURSOR_HEADER, ContractorSearchCursor.after(contractors.getLast()).encode());
+                }
+                return new ResponseEntity<>(contractors, headers, HttpStatus.OK);
             } else {
                 LOGGER.info("Contractor list not obtained { \"count\":0 }");
-                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+                headers.set(HAS_MORE_HEADER, String.valueOf(false));
+                return new ResponseEntity<>(headers, HttpStatus.NO_CONTENT);
             }
         } catch (DataAccessException exception) {
             LOGGER.error("Contractor searching was failed - {}", exception.getMessage());
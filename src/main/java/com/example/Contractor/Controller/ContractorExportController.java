@@ -0,0 +1,73 @@
+package com.example.Contractor.Controller;
+
+import com.example.Contractor.DTO.ContractorSearch;
+import com.example.Contractor.export.ContractorExporter;
+import com.example.Contractor.export.ExportFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+/**
+ * Handles export requests of Contractor search results.
+ * <p>
+ * Response body is streamed while rows are read from database, so large exports do not consume heap.
+ * Streaming has its own timeout {@code app.contractor.export.timeout}; other async requests keep the default one.
+ */
+@RestController
+@RequestMapping("/contractor")
+@RequiredArgsConstructor
+public class ContractorExportController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContractorExportController.class);
+
+    private final ContractorExporter exporter;
+
+    @Value("${app.contractor.export.timeout}")
+    private long timeout;
+
+    /**
+     * Responsible for exporting all {@code Contractor} instances that match passed condition.
+     * <p>
+     * Receives {@link ContractorSearch} instance as request body.
+     * Response is written asynchronously within {@code app.contractor.export.timeout} milliseconds;
+     * error occurred after streaming has started aborts the response.
+     *
+     * @param contractorSearch contains the filtering fields
+     * @param format file format of export
+     * @param response response the file is streamed to
+     * @return task streaming file with matched {@code Contractor} instances with http OK status
+     */
+    @Operation(summary = "Export Contractor list based on passed parameters",
+            description = "Streams all matched Contractor entities as NDJSON or CSV file")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Contractor list exported")
+    })
+    @PostMapping("/export")
+    public WebAsyncTask<Void> export(
+            @RequestBody ContractorSearch contractorSearch,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            HttpServletResponse response) {
+        response.setContentType(format.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"contractors." + format.getExtension() + "\"");
+        return new WebAsyncTask<>(timeout, () -> {
+            long start = System.currentTimeMillis();
+            exporter.export(contractorSearch, format, response.getOutputStream());
+            LOGGER.info("Contractor list exported {}", String.format("{ \"format\":\"%s\", \"millis\":%d }",
+                    format, System.currentTimeMillis() - start));
+            return null;
+        });
+    }
+
+}
@@ -1,10 +1,15 @@
 package com.example.Contractor.Controller.UI;
 
+import com.example.Contractor.Controller.ContractorBatchController;
 import com.example.Contractor.Controller.ContractorController;
+import com.example.Contractor.Controller.ContractorExportController;
 import com.example.Contractor.DTO.Contractor;
 import com.example.Contractor.DTO.ContractorSearch;
+import com.example.Contractor.DTO.SearchMode;
 import com.example.Contractor.Utils.RoleAccess;
+import com.example.Contractor.export.ExportFormat;
 import io.swagger.v3.oas.annotations.Hidden;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -31,6 +36,10 @@ public class ContractorUIController {
 
     private final ContractorController controller;
 
+    private final ContractorExportController exportController;
+
+    private final ContractorBatchController batchController;
+
     /**
      * Retrieves contractor entity from database.
      * Requires USER role or higher for access.
@@ -57,6 +66,19 @@ public class ContractorUIController {
         return controller.save(contractor);
     }
 
+    /**
+     * Adds or update Contractor instances from JSON array passed as request body.
+     * Requires CONTRACTOR_SUPERUSER role or higher for access.
+     *
+     * @param request request holding JSON array as body
+     * @return result of each item
+     */
+    @Secured("CONTRACTOR_SUPERUSER")
+    @PostMapping("/batch")
+    public ResponseEntity<?> saveBatch(HttpServletRequest request) {
+        return batchController.saveBatch(request);
+    }
+
     /**
      * Logically deletes Contractor entity from database.
      * Requires CONTRACTOR_SUPERUSER role or higher for access.
@@ -78,6 +100,9 @@ public class ContractorUIController {
      * @param search contains the filtering fields
      * @param page number of result page that will be returned
      * @param size amount of returned Contractor entities
+     * @param cursor position of the last entity of previous page; may be null
+     * @param mode matching mode of free-text field
+     * @param count whether amount of matched entities must be returned
      * @return Contractor instances that match the given condition
      * returned instances count will be no more than page size
      */
@@ -85,9 +110,32 @@ public class ContractorUIController {
     @PostMapping("/search")
     public ResponseEntity<?> search(@RequestBody ContractorSearch search,
                                     @RequestParam(defaultValue = "0") int page,
-                                    @RequestParam(defaultValue = "10") int size) {
+                                    @RequestParam(defaultValue = "10") int size,
+                                    @RequestParam(required = false) String cursor,
+                                    @RequestParam(defaultValue = "CONTAINS") SearchMode mode,
+                                    @RequestParam(defaultValue = "false") boolean count) {
+        if (RoleAccess.hasAccess(search)) {
+            return controller.search(search, page, size, cursor, mode, count);
+        } else {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+    }
+
+    /**
+     * Exports all Contractor entities that match passed parameters.
+     * Requires CONTRACTOR_RUS role (with ContractorSearch.country = "RUS")
+     * or CONTRACTOR_SUPERUSER and higher for access.
+     *
+     * @param search contains the filtering fields
+     * @param format file format of export
+     * @return streamed file with matched Contractor instances
+     */
+    @Secured("CONTRACTOR_RUS")
+    @PostMapping("/export")
+    public ResponseEntity<?> export(@RequestBody ContractorSearch search,
+                                    @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
         if (RoleAccess.hasAccess(search)) {
-            return controller.search(search, page, size);
+            return exportController.export(search, format);
         } else {
             return new ResponseEntity<>(HttpStatus.FORBIDDEN);
         }
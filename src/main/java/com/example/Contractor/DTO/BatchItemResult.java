@@ -0,0 +1,54 @@
+package com.example.Contractor.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Represents result of saving one item of batch request.
+ */
+@Getter
+@AllArgsConstructor
+public class BatchItemResult {
+
+    /**
+     * Position of item in request array, starting from 0.
+     */
+    private long index;
+
+    private String id;
+
+    private Status status;
+
+    /**
+     * Reason of failure; null if item was saved.
+     */
+    private String message;
+
+    /**
+     * Defines outcome of item saving.
+     */
+    public enum Status {
+
+        /**
+         * Item was saved.
+         */
+        SAVED,
+
+        /**
+         * Item was not saved, since later item of the same request has the same id.
+         */
+        SUPERSEDED,
+
+        /**
+         * Item was rejected before saving - it is malformed or misses required fields.
+         */
+        INVALID,
+
+        /**
+         * Database rejected item.
+         */
+        FAILED
+
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.example.Contractor.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Represents result of Contractor saving together with delta event describing the change.
+ */
+@Getter
+@AllArgsConstructor
+public class ContractorChange {
+
+    private Contractor contractor;
+
+    /**
+     * Delta event in JSON format; null if no field was changed.
+     */
+    private String delta;
+
+}
@@ -0,0 +1,74 @@
+package com.example.Contractor.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Represents position in contractor search results ordered by ({@code name}, {@code id}).
+ * <p>
+ * Passed to clients as opaque token; next page starts right after the last returned contractor.
+ */
+@Getter
+@AllArgsConstructor
+public class ContractorSearchCursor {
+
+    /**
+     * Name of the last returned contractor.
+     */
+    private String name;
+
+    /**
+     * Id of the last returned contractor.
+     */
+    private String id;
+
+    /**
+     * Creates cursor pointing right after passed contractor.
+     *
+     * @param contractor the last returned contractor
+     * @return created cursor
+     */
+    public static ContractorSearchCursor after(Contractor contractor) {
+        return new ContractorSearchCursor(contractor.getName(), contractor.getId());
+    }
+
+    /**
+     * Encodes cursor as URL-safe token.
+     *
+     * @return encoded token
+     */
+    public String encode() {
+        String value = id.length() + ":" + id + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes token created by {@link #encode()}.
+     *
+     * @param token encoded token
+     * @return decoded cursor
+     * @throws IllegalArgumentException if token is malformed
+     */
+    public static ContractorSearchCursor decode(String token) {
+        String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int separator = value.indexOf(':');
+        if (separator < 1) {
+            throw new IllegalArgumentException("Malformed search cursor");
+        }
+        int idLength;
+        try {
+            idLength = Integer.parseInt(value.substring(0, separator));
+        } catch (NumberFormatException exception) {
+            throw new IllegalArgumentException("Malformed search cursor", exception);
+        }
+        if (idLength < 0 || separator + 1 + idLength > value.length()) {
+            throw new IllegalArgumentException("Malformed search cursor");
+        }
+        return new ContractorSearchCursor(value.substring(separator + 1 + idLength),
+                value.substring(separator + 1, separator + 1 + idLength));
+    }
+
+}
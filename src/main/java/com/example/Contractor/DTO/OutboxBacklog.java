@@ -0,0 +1,20 @@
+package com.example.Contractor.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Represents state of outbox table - amount of unsent messages and age of the oldest one.
+ */
+@Getter
+@AllArgsConstructor
+public class OutboxBacklog {
+
+    private long size;
+
+    /**
+     * Age of the oldest unsent message in seconds; 0 if there are no messages.
+     */
+    private double oldestAge;
+
+}
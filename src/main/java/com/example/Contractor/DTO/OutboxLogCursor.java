@@ -0,0 +1,26 @@
+package com.example.Contractor.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Represents position in outbox log up to which messages are sent.
+ * <p>
+ * Messages are read in order of ({@code txId}, {@code offset}),
+ * so message committed late by long transaction is never skipped.
+ */
+@Getter
+@AllArgsConstructor
+public class OutboxLogCursor {
+
+    /**
+     * Id of transaction that appended the last sent message.
+     */
+    private long txId;
+
+    /**
+     * Offset of the last sent message.
+     */
+    private long offset;
+
+}
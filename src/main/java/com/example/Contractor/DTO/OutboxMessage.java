@@ -5,8 +5,14 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
 /**
  * Represents message saved in outbox table.
+ * <p>
+ * Message holds either plain JSON {@code payload} or its compressed form
+ * ({@code compressedPayload} with {@code contentEncoding}).
  */
 @Getter
 @Setter
@@ -16,5 +22,36 @@ public class OutboxMessage {
 
     private String id;
     private String payload;
+    private byte[] compressedPayload;
+    private String contentEncoding;
+
+    /**
+     * Position of last message writing (offset in outbox log); assigned by database.
+     */
+    private long seq;
+
+    /**
+     * Id of transaction that appended message to outbox log; assigned by database (LOG mode only).
+     */
+    private long txId;
+
+    /**
+     * Time of first writing of still unsent message; assigned by database.
+     */
+    private Date createdAt;
+
+    public OutboxMessage(String id, String payload) {
+        this.id = id;
+        this.payload = payload;
+    }
+
+    /**
+     * Provides message content in the form it must be sent.
+     *
+     * @return compressed payload if message is compressed, otherwise - UTF-8 bytes of payload
+     */
+    public byte[] getBody() {
+        return compressedPayload != null ? compressedPayload : payload.getBytes(StandardCharsets.UTF_8);
+    }
 
 }
@@ -0,0 +1,20 @@
+package com.example.Contractor.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Represents amount of contractors matching search request.
+ */
+@Getter
+@AllArgsConstructor
+public class SearchCount {
+
+    private long count;
+
+    /**
+     * True if count is exact; false if it is estimation of query planner.
+     */
+    private boolean exact;
+
+}
@@ -0,0 +1,18 @@
+package com.example.Contractor.DTO;
+
+/**
+ * Defines how free-text {@code contractorSearch} field of {@link ContractorSearch} is matched.
+ */
+public enum SearchMode {
+
+    /**
+     * Substring match of name, full name, INN or OGRN; results are ordered by name and id.
+     */
+    CONTAINS,
+
+    /**
+     * Full-text match by 'search_vector' column; the most relevant results are returned first.
+     */
+    FULL_TEXT
+
+}
@@ -1,22 +1,37 @@
 package com.example.Contractor.Repository;
 
 import com.example.Contractor.DTO.Contractor;
+import com.example.Contractor.DTO.ContractorChange;
 import com.example.Contractor.DTO.ContractorSearch;
+import com.example.Contractor.DTO.ContractorSearchCursor;
 import com.example.Contractor.DTO.Country;
 import com.example.Contractor.DTO.Industry;
 import com.example.Contractor.DTO.OrgForm;
+import com.example.Contractor.DTO.SearchMode;
+import com.example.Contractor.Utils.JsonUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataRetrievalFailureException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.stereotype.Repository;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
 
 /**
  * Provides access to database.
@@ -26,8 +41,40 @@ import java.util.Optional;
 @Repository
 public class ContractorRepository {
 
+    /**
+     * Max amount of bind parameters of one statement accepted by PostgreSQL.
+     */
+    private static final int MAX_BIND_PARAMS = 32767;
+
+    /**
+     * Increments version of updated entity if any of its fields was changed.
+     */
+    private static final String VERSION_UPDATE = """
+            version = CASE WHEN (contractor.parent_id, contractor.name, contractor.name_full, contractor.inn,
+            contractor.ogrn, contractor.country, contractor.industry, contractor.org_form)
+            IS DISTINCT FROM (EXCLUDED.parent_id, EXCLUDED.name, EXCLUDED.name_full, EXCLUDED.inn,
+            EXCLUDED.ogrn, EXCLUDED.country, EXCLUDED.industry, EXCLUDED.org_form)
+            THEN contractor.version + 1 ELSE contractor.version END
+            """;
+
+    /**
+     * Builds JSON object of fields tracked by delta events; table alias is substituted by {@code formatted}.
+     */
+    private static final String DELTA_FIELDS = """
+            jsonb_build_object('parentId', %1$s.parent_id, 'name', %1$s.name, 'nameFull', %1$s.name_full,
+            'inn', %1$s.inn, 'ogrn', %1$s.ogrn, 'country', %1$s.country,
+            'industry', %1$s.industry, 'orgForm', %1$s.org_form)""";
+
+    /**
+     * Full-text query of {@code search} parameter matching both language configurations of 'search_vector' column.
+     */
+    private static final String TS_QUERY = "(websearch_to_tsquery('russian', :search) || websearch_to_tsquery('simple', :search))";
+
     private final NamedParameterJdbcTemplate jdbcTemplate;
 
+    @Value("${app.contractor.export.fetchSize}")
+    private int exportFetchSize;
+
     /**
      * Creates instance with initialized {@code NamedParameterJdbcTemplate}.
      *
@@ -43,6 +90,7 @@ public class ContractorRepository {
      * <p>
      * At first tries to insert new entity into database.
      * If failed, updates the existing entity.
+     * Saved entity is returned by the same statement.
      *
      * @param contractor instance that must be added or updated
      * @return added/updated instance - if successful; {@code Optional.empty()} - else
@@ -53,99 +101,132 @@ public class ContractorRepository {
                 VALUES (:id, :parentId, :name, :nameFull, :inn, :ogrn, :country, :industry, :orgForm)
                 ON CONFLICT (id)
                 DO UPDATE SET id = :id, parent_id = :parentId, name = :name, name_full = :nameFull, inn = :inn,
-                ogrn = :ogrn, country = :country, industry = :industry, org_form = :orgForm;
+                ogrn = :ogrn, country = :country, industry = :industry, org_form = :orgForm,
+                """ + VERSION_UPDATE + """
+                RETURNING *;
                 """;
         SqlParameterSource params = new BeanPropertySqlParameterSource(contractor);
-        jdbcTemplate.update(sql, params);
         try {
-            return Optional.ofNullable(jdbcTemplate.queryForObject("""
-                SELECT *
-                FROM contractor
-                WHERE id = :id;
-                """, Collections.singletonMap("id", contractor.getId()),
-                    (rs, rowNum) -> new Contractor(
-                            rs.getString("id"),
-                            rs.getString("parent_id"),
-                            rs.getString("name"),
-                            rs.getString("name_full"),
-                            rs.getString("inn"),
-                            rs.getString("ogrn"),
-                            rs.getString("country"),
-                            rs.getInt("industry"),
-                            rs.getInt("org_form"),
-                            rs.getDate("create_date"),
-                            rs.getDate("modify_date"),
-                            rs.getString("create_user_id"),
-                            rs.getString("modify_user_id"),
-                            rs.getBoolean("is_active")
-                    )));
+            return Optional.ofNullable(jdbcTemplate.queryForObject(sql, params,
+                    (rs, rowNum) -> mapContractor(rs)));
         } catch (EmptyResultDataAccessException exception) {
             return Optional.empty();
         }
     }
 
     /**
-     * Implements SQL SELECT (by primary key) query.
+     * Implements SQL INSERT and UPDATE queries for several entities by multi-row statements.
      * <p>
-     * Tries to find {@link Contractor} suitable entity in 'contractor' table
-     * and all relevant data from related tables ('country', 'industry' and 'org_form').
+     * Passed entities must have distinct ids. Statement takes nine parameters per entity and PostgreSQL accepts
+     * at most {@value #MAX_BIND_PARAMS} of them, so entities are split between several statements if needed.
      *
-     * @param id value of {@code id} field of searched {@code Contractor} entity
-     * @return coupled data - if request was successful, {@code Optional.empty()} - else
+     * @param contractors instances that must be added or updated
+     * @return added/updated instances
      */
-    public Optional<List<Object>> get(String id) {
+    public List<Contractor> saveAll(List<Contractor> contractors) {
+        int limit = MAX_BIND_PARAMS / 9;
+        List<Contractor> saved = new ArrayList<>(contractors.size());
+        for (int from = 0; from < contractors.size(); from += limit) {
+            saved.addAll(upsertRows(contractors.subList(from, Math.min(from + limit, contractors.size()))));
+        }
+        return saved;
+    }
+
+    private List<Contractor> upsertRows(List<Contractor> contractors) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringJoiner values = new StringJoiner(", ");
+        for (int i = 0; i < contractors.size(); i++) {
+            Contractor contractor = contractors.get(i);
+            values.add(("(:id%1$d, :parentId%1$d, :name%1$d, :nameFull%1$d, :inn%1$d, :ogrn%1$d, :country%1$d, "
+                    + ":industry%1$d, :orgForm%1$d)").formatted(i));
+            params.addValue("id" + i, contractor.getId());
+            params.addValue("parentId" + i, contractor.getParentId());
+            params.addValue("name" + i, contractor.getName());
+            params.addValue("nameFull" + i, contractor.getNameFull());
+            params.addValue("inn" + i, contractor.getInn());
+            params.addValue("ogrn" + i, contractor.getOgrn());
+            params.addValue("country" + i, contractor.getCountry());
+            params.addValue("industry" + i, contractor.getIndustry());
+            params.addValue("orgForm" + i, contractor.getOrgForm());
+        }
         String sql = """
-                SELECT contractor.*,
-                country.id AS c_id, country.name AS c_name, country.is_active AS c_active,
-                industry.id AS i_id, industry.name AS i_name, industry.is_active AS i_active,
-                org_form.id AS of_id, org_form.name AS of_name, org_form.is_active AS of_active
+                INSERT INTO contractor (id, parent_id, name, name_full, inn, ogrn, country, industry, org_form)
+                VALUES %s
+                ON CONFLICT (id)
+                DO UPDATE SET parent_id = EXCLUDED.parent_id, name = EXCLUDED.name, name_full = EXCLUDED.name_full,
+                inn = EXCLUDED.inn, ogrn = EXCLUDED.ogrn, country = EXCLUDED.country, industry = EXCLUDED.industry,
+                org_form = EXCLUDED.org_form,
+                """.formatted(values) + VERSION_UPDATE + """
+                RETURNING *;
+                """;
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> mapContractor(rs));
+    }
+
+    /**
+     * Implements SQL INSERT and UPDATE queries and computes delta event of the change by the same statement.
+     * <p>
+     * Stored row is locked and read before upsert; delta holds contractor id, old version (null for new contractor),
+     * new version and new values of changed fields only. Version is incremented only if some field was changed.
+     *
+     * @param contractor instance that must be added or updated
+     * @return added/updated instance with delta event - if successful; {@code Optional.empty()} - else
+     */
+    public Optional<ContractorChange> saveWithDelta(Contractor contractor) {
+        String sql = """
+                WITH old AS (
+                SELECT *
                 FROM contractor
-                JOIN country ON contractor.country = country.id
-                JOIN industry ON contractor.industry = industry.id
-                JOIN org_form ON contractor.org_form = org_form.id
-                WHERE contractor.id = :id;
-               """;
+                WHERE id = :id
+                FOR UPDATE
+                ), saved AS (
+                INSERT INTO contractor (id, parent_id, name, name_full, inn, ogrn, country, industry, org_form)
+                VALUES (:id, :parentId, :name, :nameFull, :inn, :ogrn, :country, :industry, :orgForm)
+                ON CONFLICT (id)
+                DO UPDATE SET id = :id, parent_id = :parentId, name = :name, name_full = :nameFull, inn = :inn,
+                ogrn = :ogrn, country = :country, industry = :industry, org_form = :orgForm,
+                """ + VERSION_UPDATE + """
+                RETURNING *
+                ), changes AS (
+                SELECT jsonb_object_agg(new_field.key, new_field.value) AS fields
+                FROM saved
+                LEFT JOIN old ON TRUE
+                CROSS JOIN jsonb_each(""" + DELTA_FIELDS.formatted("saved") + """
+                ) AS new_field
+                WHERE old.id IS NULL OR new_field.value IS DISTINCT FROM (""" + DELTA_FIELDS.formatted("old") + """
+                -> new_field.key)
+                )
+                SELECT saved.*,
+                CASE WHEN changes.fields IS NULL THEN NULL
+                ELSE jsonb_build_object('type', 'contractor.delta', 'id', saved.id,
+                'oldVersion', old.version, 'version', saved.version, 'changes', changes.fields)::text
+                END AS delta
+                FROM saved
+                LEFT JOIN old ON TRUE
+                CROSS JOIN changes;
+                """;
+        SqlParameterSource params = new BeanPropertySqlParameterSource(contractor);
         try {
-            return Optional.ofNullable(jdbcTemplate.queryForObject(sql, Collections.singletonMap("id", id),
-                    (rs, rowNum) -> {
-                        Contractor contractor = new Contractor(
-                                rs.getString("id"),
-                                rs.getString("parent_id"),
-                                rs.getString("name"),
-                                rs.getString("name_full"),
-                                rs.getString("inn"),
-                                rs.getString("ogrn"),
-                                rs.getString("country"),
-                                rs.getInt("industry"),
-                                rs.getInt("org_form"),
-                                rs.getDate("create_date"),
-                                rs.getDate("modify_date"),
-                                rs.getString("create_user_id"),
-                                rs.getString("modify_user_id"),
-                                rs.getBoolean("is_active")
-                        );
-                        Country country = new Country(
-                                rs.getString("c_id"),
-                                rs.getString("c_name"),
-                                rs.getBoolean("c_active")
-                        );
-                        Industry industry = new Industry(
-                                rs.getInt("i_id"),
-                                rs.getString("i_name"),
-                                rs.getBoolean("i_active")
-                        );
-                        OrgForm orgForm = new OrgForm(
-                                rs.getInt("of_id"),
-                                rs.getString("of_name"),
-                                rs.getBoolean("of_active")
-                        );
-                        return List.of(contractor, country, industry, orgForm);
-                    }));
+            return Optional.ofNullable(jdbcTemplate.queryForObject(sql, params,
+                    (rs, rowNum) -> new ContractorChange(mapContractor(rs), rs.getString("delta"))));
         } catch (EmptyResultDataAccessException exception) {
             return Optional.empty();
         }
     }
 
+    /**
+     * Implements SQL SELECT (by primary key) query without joining related tables.
+     *
+     * @param id value of {@code id} field of searched entity
+     * @return found {@code Contractor} instance - if successful; {@code Optional.empty()} - else
+     */
+    public Optional<Contractor> getContractor(String id) {
+        return jdbcTemplate.query("""
+                SELECT *
+                FROM contractor
+                WHERE id = :id;
+                """, Collections.singletonMap("id", id), (rs, rowNum) -> mapContractor(rs)).stream().findFirst();
+    }
+
     /**
      * Implements logical removing from database.
      * <p>
@@ -168,6 +249,8 @@ public class ContractorRepository {
      * Finds suitable {@link Contractor} entities in database then returns some of them.
      * Uses {@link ContractorSearch} instance as source of sorting fields.
      * Can`t return more instances than {@code size}.
+     * Results are ordered by name and id in "C" collation (by code points), so they do not depend on database locale
+     * and in-memory search index orders them the same way.
      *
      * @param contractorSearch sorting field
      * @param page number of result page that will be returned
@@ -175,33 +258,294 @@ public class ContractorRepository {
      * @return {@code Contractor} instances that match the given condition (in {@code contactorSearch})
      */
     public List<Contractor> search(ContractorSearch contractorSearch, int page, int size) {
+        Map<String, Object> params = new HashMap<>();
         String sql = """
                 SELECT *
                 FROM contractor
-                WHERE is_active AND
-                id ILIKE :id AND
-                COALESCE(parent_id, '') ILIKE :parentId AND
-                (name ILIKE :name OR COALESCE(name_full, '') ILIKE :nameFull OR COALESCE(inn, '') ILIKE :inn
-                 OR COALESCE(ogrn, '') ILIKE :ogrn) AND
-                country = ANY (SELECT id FROM country WHERE name ILIKE :country) AND
-                CAST(industry AS TEXT) ILIKE :industry AND
-                org_form = ANY (SELECT id FROM org_form WHERE name ILIKE :orgForm)
+                WHERE %s
+                ORDER BY name COLLATE "C", id COLLATE "C"
                 LIMIT :size OFFSET :page;
-                """;
+                """.formatted(searchCondition(contractorSearch, params));
+        params.put("size", size);
+        params.put("page", page * size);
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> mapContractor(rs));
+    }
+
+    /**
+     * Implements SQL SELECT query with keyset paging.
+     * <p>
+     * Returns {@link Contractor} entities ordered by ({@code name}, {@code id}) that follow passed cursor.
+     * Seek predicate is served by 'contractor_name_id_idx' index, so every page costs the same regardless of its depth.
+     *
+     * @param contractorSearch sorting field
+     * @param cursor position of the last returned entity
+     * @param size amount of returned entities
+     * @return {@code Contractor} instances that match the given condition and follow cursor
+     */
+    public List<Contractor> searchAfter(ContractorSearch contractorSearch, ContractorSearchCursor cursor, int size) {
+        Map<String, Object> params = new HashMap<>();
+        String sql = """
+                SELECT *
+                FROM contractor
+                WHERE %s AND (name COLLATE "C", id COLLATE "C") > (:cursorName, :cursorId)
+                ORDER BY name COLLATE "C", id COLLATE "C"
+                LIMIT :size;
+                """.formatted(searchCondition(contractorSearch, params));
+        params.put("cursorName", cursor.getName());
+        params.put("cursorId", cursor.getId());
+        params.put("size", size);
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> mapContractor(rs));
+    }
+
+    /**
+     * Implements SQL SELECT query with full-text matching, relevance sorting and paging.
+     * <p>
+     * Free-text field of {@link ContractorSearch} is matched by 'search_vector' column served by GIN index;
+     * results are ordered by {@code ts_rank}, so the best matches come first. Other fields are matched as usual.
+     *
+     * @param contractorSearch sorting field
+     * @param page number of result page that will be returned
+     * @param size amount of returned entities
+     * @return {@code Contractor} instances that match the given condition ordered by relevance
+     */
+    public List<Contractor> searchRanked(ContractorSearch contractorSearch, int page, int size) {
+        if (contractorSearch.getContractorSearch().isEmpty()) {
+            return search(contractorSearch, page, size);
+        }
         Map<String, Object> params = new HashMap<>();
-        params.put("id", contractorSearch.getContractorId().orElse("%"));
-        params.put("parentId", contractorSearch.getParentId().orElse("%"));
-        params.put("name", format(contractorSearch.getContractorSearch().orElse("%")));
-        params.put("nameFull", format(contractorSearch.getContractorSearch().orElse("%")));
-        params.put("inn", format(contractorSearch.getContractorSearch().orElse("%")));
-        params.put("ogrn", format(contractorSearch.getContractorSearch().orElse("%")));
-        params.put("country", format(contractorSearch.getCountry().orElse("%")));
-        params.put("industry", contractorSearch.getIndustry().orElse("%"));
-        params.put("orgForm", format(contractorSearch.getOrgForm().orElse("%")));
+        String sql = """
+                SELECT *
+                FROM contractor
+                WHERE %s
+                ORDER BY ts_rank(search_vector, %s) DESC, name COLLATE "C", id COLLATE "C"
+                LIMIT :size OFFSET :page;
+                """.formatted(searchCondition(contractorSearch, params, true), TS_QUERY);
         params.put("size", size);
         params.put("page", page * size);
-        return jdbcTemplate.query(sql, params,
-                (rs, rowNum) -> new Contractor(
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> mapContractor(rs));
+    }
+
+    /**
+     * Implements SQL SELECT query reading all matched entities through server-side cursor.
+     * <p>
+     * Rows are fetched by {@code app.contractor.export.fetchSize} and passed to consumer as they are read,
+     * so memory use does not depend on result size. Must be called inside transaction,
+     * otherwise PostgreSQL driver reads the whole result at once.
+     *
+     * @param contractorSearch sorting field
+     * @param consumer receives {@code Contractor} instances ordered by name and id
+     */
+    public void export(ContractorSearch contractorSearch, Consumer<Contractor> consumer) {
+        Map<String, Object> params = new HashMap<>();
+        String sql = """
+                SELECT *
+                FROM contractor
+                WHERE %s
+                ORDER BY name COLLATE "C", id COLLATE "C";
+                """.formatted(searchCondition(contractorSearch, params));
+        exportTemplate().query(sql, params, (RowCallbackHandler) rs -> consumer.accept(mapContractor(rs)));
+    }
+
+    /**
+     * Same as {@link #export(ContractorSearch, Consumer)}, but also reads related data
+     * from 'country', 'industry' and 'org_form' tables.
+     *
+     * @param contractorSearch sorting field
+     * @param consumer receives coupled data (Contractor, Country, Industry and OrgForm) ordered by name and id
+     */
+    public void exportDetails(ContractorSearch contractorSearch, Consumer<List<Object>> consumer) {
+        Map<String, Object> params = new HashMap<>();
+        String sql = """
+                SELECT contractor.*,
+                country.id AS c_id, country.name AS c_name, country.is_active AS c_active,
+                industry.id AS i_id, industry.name AS i_name, industry.is_active AS i_active,
+                org_form.id AS of_id, org_form.name AS of_name, org_form.is_active AS of_active
+                FROM (
+                SELECT *
+                FROM contractor
+                WHERE %s
+                ) contractor
+                LEFT JOIN country ON contractor.country = country.id
+                LEFT JOIN industry ON contractor.industry = industry.id
+                LEFT JOIN org_form ON contractor.org_form = org_form.id
+                ORDER BY contractor.name COLLATE "C", contractor.id COLLATE "C";
+                """.formatted(searchCondition(contractorSearch, params));
+        exportTemplate().query(sql, params, (RowCallbackHandler) rs -> consumer.accept(mapDetails(rs)));
+    }
+
+    /**
+     * Checks if there are matched entities after passed cursor in ({@code name}, {@code id}) order.
+     * <p>
+     * Served by 'contractor_name_id_idx' index, so it costs about one row read.
+     *
+     * @param contractorSearch sorting field
+     * @param cursor position of the last returned entity
+     * @return true if next page is not empty
+     */
+    public boolean existsAfter(ContractorSearch contractorSearch, ContractorSearchCursor cursor) {
+        Map<String, Object> params = new HashMap<>();
+        String sql = """
+                SELECT EXISTS (
+                SELECT 1
+                FROM contractor
+                WHERE %s AND (name COLLATE "C", id COLLATE "C") > (:cursorName, :cursorId)
+                );
+                """.formatted(searchCondition(contractorSearch, params));
+        params.put("cursorName", cursor.getName());
+        params.put("cursorId", cursor.getId());
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(sql, params, Boolean.class));
+    }
+
+    /**
+     * Checks if there are more matched entities than passed offset.
+     *
+     * @param contractorSearch sorting field
+     * @param mode matching mode of free-text field
+     * @param offset amount of skipped entities
+     * @return true if next page is not empty
+     */
+    public boolean existsBeyond(ContractorSearch contractorSearch, SearchMode mode, long offset) {
+        Map<String, Object> params = new HashMap<>();
+        String sql = """
+                SELECT EXISTS (
+                SELECT 1
+                FROM contractor
+                WHERE %s
+                OFFSET :offset
+                );
+                """.formatted(searchCondition(contractorSearch, params, mode == SearchMode.FULL_TEXT));
+        params.put("offset", offset);
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(sql, params, Boolean.class));
+    }
+
+    /**
+     * Counts matched entities, but no more than passed limit.
+     * <p>
+     * Stops reading after {@code limit} rows, so its cost is bounded regardless of table size.
+     *
+     * @param contractorSearch sorting field
+     * @param mode matching mode of free-text field
+     * @param limit max counted amount
+     * @return amount of matched entities; equal to {@code limit} if there are at least {@code limit} ones
+     */
+    public long countUpTo(ContractorSearch contractorSearch, SearchMode mode, long limit) {
+        Map<String, Object> params = new HashMap<>();
+        String sql = """
+                SELECT COUNT(*)
+                FROM (
+                SELECT 1
+                FROM contractor
+                WHERE %s
+                LIMIT :limit
+                ) matched;
+                """.formatted(searchCondition(contractorSearch, params, mode == SearchMode.FULL_TEXT));
+        params.put("limit", limit);
+        Long count = jdbcTemplate.queryForObject(sql, params, Long.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Estimates amount of matched entities by query planner without executing the query.
+     *
+     * @param contractorSearch sorting field
+     * @param mode matching mode of free-text field
+     * @return estimated amount of matched entities
+     */
+    public long estimateCount(ContractorSearch contractorSearch, SearchMode mode) {
+        Map<String, Object> params = new HashMap<>();
+        String sql = "EXPLAIN (FORMAT JSON) SELECT 1 FROM contractor WHERE "
+                + searchCondition(contractorSearch, params, mode == SearchMode.FULL_TEXT);
+        String plan = jdbcTemplate.queryForObject(sql, params, String.class);
+        try {
+            return JsonUtil.readTree(plan).path(0).path("Plan").path("Plan Rows").asLong();
+        } catch (JsonProcessingException exception) {
+            throw new DataRetrievalFailureException("Query plan parsing was failed", exception);
+        }
+    }
+
+    /**
+     * Builds WHERE condition of search query and fills its parameters.
+     * <p>
+     * Only passed fields are added to condition, and matched columns are not wrapped into functions,
+     * so free-text search is served by trigram indexes of 'name', 'name_full', 'inn' and 'ogrn' columns.
+     * As before, contractors without country, industry or org form are never matched.
+     *
+     * @param contractorSearch sorting field
+     * @param params query parameters that are filled by this method
+     * @return SQL condition
+     */
+    String searchCondition(ContractorSearch contractorSearch, Map<String, Object> params) {
+        return searchCondition(contractorSearch, params, false);
+    }
+
+    private String searchCondition(ContractorSearch contractorSearch, Map<String, Object> params, boolean fullText) {
+        List<String> conditions = new ArrayList<>();
+        conditions.add("is_active");
+        conditions.add("country IS NOT NULL AND industry IS NOT NULL AND org_form IS NOT NULL");
+        contractorSearch.getContractorId().ifPresent(id -> {
+            conditions.add("id ILIKE :id");
+            params.put("id", id);
+        });
+        contractorSearch.getParentId().ifPresent(parentId -> {
+            conditions.add("parent_id ILIKE :parentId");
+            params.put("parentId", parentId);
+        });
+        contractorSearch.getContractorSearch().ifPresent(search -> {
+            if (fullText) {
+                conditions.add("search_vector @@ " + TS_QUERY);
+                params.put("search", search);
+            } else {
+                conditions.add("(name ILIKE :search OR name_full ILIKE :search OR inn ILIKE :search OR ogrn ILIKE :search)");
+                params.put("search", format(search));
+            }
+        });
+        contractorSearch.getCountry().ifPresent(country -> {
+            conditions.add("country IN (SELECT id FROM country WHERE name ILIKE :country)");
+            params.put("country", format(country));
+        });
+        contractorSearch.getIndustry().ifPresent(industry -> {
+            conditions.add("industry = :industry");
+            params.put("industry", Integer.parseInt(industry));
+        });
+        contractorSearch.getOrgForm().ifPresent(orgForm -> {
+            conditions.add("org_form IN (SELECT id FROM org_form WHERE name ILIKE :orgForm)");
+            params.put("orgForm", format(orgForm));
+        });
+        return String.join(" AND ", conditions);
+    }
+
+    private String format(String param) {
+        return param.equals("%") ? param : "%" + param + "%";
+    }
+
+    private NamedParameterJdbcTemplate exportTemplate() {
+        JdbcTemplate exportTemplate = new JdbcTemplate(jdbcTemplate.getJdbcTemplate().getDataSource());
+        exportTemplate.setFetchSize(exportFetchSize);
+        return new NamedParameterJdbcTemplate(exportTemplate);
+    }
+
+    private List<Object> mapDetails(ResultSet rs) throws SQLException {
+        Contractor contractor = mapContractor(rs);
+        Country country = new Country(
+                rs.getString("c_id"),
+                rs.getString("c_name"),
+                rs.getBoolean("c_active")
+        );
+        Industry industry = new Industry(
+                rs.getInt("i_id"),
+                rs.getString("i_name"),
+                rs.getBoolean("i_active")
+        );
+        OrgForm orgForm = new OrgForm(
+                rs.getInt("of_id"),
+                rs.getString("of_name"),
+                rs.getBoolean("of_active")
+        );
+        return List.of(contractor, country, industry, orgForm);
+    }
+
+    private Contractor mapContractor(ResultSet rs) throws SQLException {
+        return new Contractor(
                 rs.getString("id"),
                 rs.getString("parent_id"),
                 rs.getString("name"),
@@ -216,11 +560,7 @@ public class ContractorRepository {
                 rs.getString("create_user_id"),
                 rs.getString("modify_user_id"),
                 rs.getBoolean("is_active")
-        ));
-    }
-
-    private String format(String param) {
-        return param.equals("%") ? param : "%" + param + "%";
+        );
     }
 
 }
@@ -49,6 +49,21 @@ public class CountryRepository {
         return list;
     }
 
+    /**
+     * Retrieves all {@code Country} entities from database, including inactive ones.
+     *
+     * @return list of all {@code Country} instances
+     */
+    public List<Country> getAll() {
+        return jdbcTemplate.query("""
+                SELECT *
+                FROM country;
+                """, (rs, rowNum) -> new Country(
+                rs.getString("id"),
+                rs.getString("name"),
+                rs.getBoolean("is_active")));
+    }
+
     /**
      * Implements SQL INSERT (by primary key) query.
      * <p>
@@ -77,24 +92,21 @@ public class CountryRepository {
      * <p>
      * At first tries to insert new row into database.
      * If failed, updates the existing row.
+     * Saved row is returned by the same statement.
      *
      * @param country instance that must be added or updated
      * @return added/updated instance - if successful, Optional.empty() - else
      */
     public Optional<Country> save(Country country) {
         SqlParameterSource params = new BeanPropertySqlParameterSource(country);
-        jdbcTemplate.update("""
-                INSERT INTO country (id, name)
-                VALUES (:id, :name)
-                ON CONFLICT (id)
-                DO UPDATE SET id = :id, name = :name;
-                """, params);
         try {
             return Optional.ofNullable(jdbcTemplate.queryForObject("""
-                    SELECT *
-                    FROM country
-                    WHERE id = :id;
-                    """, Collections.singletonMap("id", country.getId()), (rs, rowNum) -> new Country(
+                    INSERT INTO country (id, name)
+                    VALUES (:id, :name)
+                    ON CONFLICT (id)
+                    DO UPDATE SET id = :id, name = :name
+                    RETURNING *;
+                    """, params, (rs, rowNum) -> new Country(
                     rs.getString("id"),
                     rs.getString("name"),
                     rs.getBoolean("is_active")
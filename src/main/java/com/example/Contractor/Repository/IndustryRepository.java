@@ -49,6 +49,21 @@ public class IndustryRepository {
         return list;
     }
 
+    /**
+     * Retrieves all {@code Industry} entities from database, including inactive ones.
+     *
+     * @return list of all {@code Industry} instances
+     */
+    public List<Industry> getAll() {
+        return jdbcTemplate.query("""
+                SELECT *
+                FROM industry;
+                """, (rs, rowNum) -> new Industry(
+                rs.getInt("id"),
+                rs.getString("name"),
+                rs.getBoolean("is_active")));
+    }
+
     /**
      * Implements SQL INSERT (by primary key) query.
      * <p>
@@ -77,24 +92,21 @@ public class IndustryRepository {
      * <p>
      * At first tries to insert new row into database.
      * If failed, updates the existing row.
+     * Saved row is returned by the same statement.
      *
      * @param industry instance that must be added or updated
      * @return added/updated instance - if successful, Optional.empty() - else
      */
     public Optional<Industry> save(Industry industry) {
         SqlParameterSource params = new BeanPropertySqlParameterSource(industry);
-        jdbcTemplate.update("""
-                INSERT INTO industry (id, name)
-                VALUES (:id, :name)
-                ON CONFLICT (id)
-                DO UPDATE SET id = :id, name = :name;
-                """, params);
         try {
             return Optional.ofNullable(jdbcTemplate.queryForObject("""
-                    SELECT *
-                    FROM industry
-                    WHERE id = :id;
-                    """, Collections.singletonMap("id", industry.getId()), (rs, rowNum) -> new Industry(
+                    INSERT INTO industry (id, name)
+                    VALUES (:id, :name)
+                    ON CONFLICT (id)
+                    DO UPDATE SET id = :id, name = :name
+                    RETURNING *;
+                    """, params, (rs, rowNum) -> new Industry(
                     rs.getInt("id"),
                     rs.getString("name"),
                     rs.getBoolean("is_active")
@@ -49,6 +49,21 @@ public class OrgFormRepository {
         return list;
     }
 
+    /**
+     * Retrieves all {@code OrgForm} entities from database, including inactive ones.
+     *
+     * @return list of all {@code OrgForm} instances
+     */
+    public List<OrgForm> getAll() {
+        return jdbcTemplate.query("""
+                SELECT *
+                FROM org_form;
+                """, (rs, rowNum) -> new OrgForm(
+                rs.getInt("id"),
+                rs.getString("name"),
+                rs.getBoolean("is_active")));
+    }
+
     /**
      * Implements SQL INSERT (by primary key) query.
      * <p>
@@ -77,24 +92,21 @@ public class OrgFormRepository {
      * <p>
      * At first tries to insert new row into database.
      * If failed, updates the existing row.
+     * Saved row is returned by the same statement.
      *
      * @param orgForm instance that must be added or updated
      * @return added/updated instance - if successful, Optional.empty() - else
      */
     public Optional<OrgForm> save(OrgForm orgForm) {
         SqlParameterSource params = new BeanPropertySqlParameterSource(orgForm);
-        jdbcTemplate.update("""
-                INSERT INTO org_form (id, name)
-                VALUES (:id, :name)
-                ON CONFLICT (id)
-                DO UPDATE SET id = :id, name = :name;
-                """, params);
         try {
             return Optional.ofNullable(jdbcTemplate.queryForObject("""
-                    SELECT *
-                    FROM org_form
-                    WHERE id = :id;
-                    """, Collections.singletonMap("id", orgForm.getId()), (rs, rowNum) -> new OrgForm(
+                    INSERT INTO org_form (id, name)
+                    VALUES (:id, :name)
+                    ON CONFLICT (id)
+                    DO UPDATE SET id = :id, name = :name
+                    RETURNING *;
+                    """, params, (rs, rowNum) -> new OrgForm(
                     rs.getInt("id"),
                     rs.getString("name"),
                     rs.getBoolean("is_active")
@@ -0,0 +1,299 @@
+package com.example.Contractor.Repository;
+
+import com.example.Contractor.DTO.OutboxBacklog;
+import com.example.Contractor.DTO.OutboxLogCursor;
+import com.example.Contractor.DTO.OutboxMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * Provides access to append-only outbox log.
+ * <p>
+ * 'outbox_log' table is partitioned by day of writing; rows are never updated or deleted one by one.
+ * Position of sender is stored in 'outbox_log_cursor' table.
+ */
+@Repository
+public class OutboxLogRepository {
+
+    /**
+     * Prefix of names of daily partitions; followed by date in {@code yyyyMMdd} format.
+     */
+    public static final String PARTITION_PREFIX = "outbox_log_p";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Value("${app.outbox.notify}")
+    private boolean notify;
+
+    private final RowMapper<OutboxMessage> rowMapper = (rs, rowNum) -> new OutboxMessage(
+            rs.getString("id"),
+            rs.getString("payload"),
+            rs.getBytes("payload_bin"),
+            rs.getString("content_encoding"),
+            rs.getLong("log_offset"),
+            Long.parseLong(rs.getString("tx_id")),
+            rs.getTimestamp("created_at")
+    );
+
+    /**
+     * Appends passed OutboxMessage instance to 'outbox_log' table.
+     * If {@code app.outbox.notify} is on, also sends notification to listeners of outbox channel.
+     *
+     * @param message message must be appended
+     * @return appended rows amount
+     */
+    public int append(OutboxMessage message) {
+        String sql = """
+                INSERT INTO outbox_log (id, payload, payload_bin, content_encoding)
+                VALUES (:id, :payload, :compressedPayload, :contentEncoding);
+                """;
+        int appended = jdbcTemplate.update(sql, new BeanPropertySqlParameterSource(message));
+        if (notify) {
+            jdbcTemplate.query("SELECT pg_notify(:channel, '');",
+                    Collections.singletonMap("channel", OutboxRepository.NOTIFY_CHANNEL), (RowCallbackHandler) rs -> { });
+        }
+        return appended;
+    }
+
+    /**
+     * Appends passed OutboxMessage instances to 'outbox_log' table by one multi-row statement.
+     * Notification is sent once.
+     *
+     * @param messages messages must be appended in passed order
+     * @return appended rows amount
+     */
+    public int appendAll(List<OutboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringJoiner values = new StringJoiner(", ");
+        for (int i = 0; i < messages.size(); i++) {
+            OutboxMessage message = messages.get(i);
+            values.add("(:id%1$d, :payload%1$d, :compressedPayload%1$d, :contentEncoding%1$d)".formatted(i));
+            params.addValue("id" + i, message.getId());
+            params.addValue("payload" + i, message.getPayload());
+            params.addValue("compressedPayload" + i, message.getCompressedPayload(), Types.BINARY);
+            params.addValue("contentEncoding" + i, message.getContentEncoding());
+        }
+        String sql = """
+                INSERT INTO outbox_log (id, payload, payload_bin, content_encoding)
+                VALUES %s;
+                """.formatted(values);
+        int appended = jdbcTemplate.update(sql, params);
+        if (notify) {
+            jdbcTemplate.query("SELECT pg_notify(:channel, '');",
+                    Collections.singletonMap("channel", OutboxRepository.NOTIFY_CHANNEL), (RowCallbackHandler) rs -> { });
+        }
+        return appended;
+    }
+
+    /**
+     * Reads up to {@code limit} messages written after passed cursor.
+     * <p>
+     * Only messages of transactions older than every running one are read,
+     * so message with lower position can not appear after cursor has passed it.
+     *
+     * @param cursor position of the last sent message
+     * @param limit max amount of read messages
+     * @return OutboxMessage instances ordered by position
+     */
+    public List<OutboxMessage> readAfter(OutboxLogCursor cursor, int limit) {
+        String sql = """
+                SELECT log_offset, tx_id::text AS tx_id, id, payload, payload_bin, content_encoding, created_at
+                FROM outbox_log
+                WHERE (tx_id, log_offset) > (CAST(CAST(:txId AS text) AS xid8), :offset)
+                AND tx_id < pg_snapshot_xmin(pg_current_snapshot())
+                ORDER BY tx_id, log_offset
+                LIMIT :limit;
+                """;
+        Map<String, Object> params = cursorParams(cursor);
+        params.put("limit", limit);
+        return jdbcTemplate.query(sql, params, rowMapper);
+    }
+
+    /**
+     * Retrieves amount of messages written after passed cursor and age of the oldest one.
+     *
+     * @param cursor position of the last sent message
+     * @return current state of outbox log
+     */
+    public OutboxBacklog getBacklog(OutboxLogCursor cursor) {
+        String sql = """
+                SELECT COUNT(*) AS size,
+                COALESCE(EXTRACT(EPOCH FROM now() - MIN(created_at)), 0) AS oldest_age
+                FROM outbox_log
+                WHERE (tx_id, log_offset) > (CAST(CAST(:txId AS text) AS xid8), :offset);
+                """;
+        return jdbcTemplate.queryForObject(sql, cursorParams(cursor),
+                (rs, rowNum) -> new OutboxBacklog(
+                        rs.getLong("size"),
+                        rs.getDouble("oldest_age")
+                ));
+    }
+
+    /**
+     * Retrieves cursor of passed consumer.
+     *
+     * @param consumer name of consumer
+     * @return cursor if consumer exists, otherwise - Optional.empty()
+     */
+    public Optional<OutboxLogCursor> getCursor(String consumer) {
+        String sql = """
+                SELECT tx_id::text AS tx_id, log_offset
+                FROM outbox_log_cursor
+                WHERE consumer = :consumer;
+                """;
+        try {
+            return Optional.ofNullable(
+                    jdbcTemplate.queryForObject(sql, Collections.singletonMap("consumer", consumer),
+                            (rs, rowNum) -> new OutboxLogCursor(
+                                    Long.parseLong(rs.getString("tx_id")),
+                                    rs.getLong("log_offset")
+                            )));
+        } catch (EmptyResultDataAccessException exception) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Leases cursor of passed consumer, so only one sender reads the log at the same time.
+     * Expired lease of crashed sender is taken over.
+     *
+     * @param consumer name of consumer
+     * @param owner identifier of sender
+     * @param lease lease duration in milliseconds
+     * @return leased cursor, Optional.empty() if cursor is leased by other sender
+     */
+    public Optional<OutboxLogCursor> leaseCursor(String consumer, String owner, long lease) {
+        String sql = """
+                UPDATE outbox_log_cursor
+                SET lease_owner = :owner, lease_until = now() + :lease * interval '1 millisecond'
+                WHERE consumer = :consumer
+                AND (lease_owner = :owner OR lease_until IS NULL OR lease_until < now())
+                RETURNING tx_id::text AS tx_id, log_offset;
+                """;
+        Map<String, Object> params = new HashMap<>();
+        params.put("consumer", consumer);
+        params.put("owner", owner);
+        params.put("lease", lease);
+        return jdbcTemplate.query(sql, params,
+                (rs, rowNum) -> new OutboxLogCursor(
+                        Long.parseLong(rs.getString("tx_id")),
+                        rs.getLong("log_offset")
+                )).stream().findFirst();
+    }
+
+    /**
+     * Moves cursor of passed consumer and releases its lease.
+     *
+     * @param consumer name of consumer
+     * @param owner identifier of sender that leased cursor
+     * @param cursor position of the last sent message
+     * @return updated rows amount; 0 if lease was lost
+     */
+    public int commitCursor(String consumer, String owner, OutboxLogCursor cursor) {
+        String sql = """
+                UPDATE outbox_log_cursor
+                SET tx_id = CAST(CAST(:txId AS text) AS xid8), log_offset = :offset,
+                lease_owner = NULL, lease_until = NULL
+                WHERE consumer = :consumer AND lease_owner = :owner;
+                """;
+        Map<String, Object> params = cursorParams(cursor);
+        params.put("consumer", consumer);
+        params.put("owner", owner);
+        return jdbcTemplate.update(sql, params);
+    }
+
+    /**
+     * Creates daily partition of 'outbox_log' table if it does not exist.
+     *
+     * @param day day (UTC) of messages stored in partition
+     */
+    public void createPartition(LocalDate day) {
+        String sql = "CREATE TABLE IF NOT EXISTS " + partitionName(day)
+                + " PARTITION OF outbox_log FOR VALUES FROM ('" + day + " 00:00:00+00') TO ('"
+                + day.plusDays(1) + " 00:00:00+00');";
+        jdbcTemplate.getJdbcTemplate().execute(sql);
+    }
+
+    /**
+     * Retrieves names of existing partitions of 'outbox_log' table.
+     *
+     * @return names of partitions
+     */
+    public List<String> getPartitions() {
+        String sql = """
+                SELECT child.relname
+                FROM pg_inherits
+                JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+                JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+                WHERE parent.relname = 'outbox_log';
+                """;
+        return jdbcTemplate.queryForList(sql, new HashMap<>(), String.class);
+    }
+
+    /**
+     * Drops daily partition if all its messages were sent.
+     * <p>
+     * Partition is locked before check, so transaction that is still writing to it
+     * finishes first and its messages prevent dropping. Must be called inside transaction.
+     *
+     * @param day day (UTC) of messages stored in partition
+     * @param cursor position of the last sent message
+     * @return true - partition was dropped, false - partition holds unsent messages
+     */
+    public boolean dropPartitionIfSent(LocalDate day, OutboxLogCursor cursor) {
+        String partition = partitionName(day);
+        jdbcTemplate.getJdbcTemplate().execute("LOCK TABLE " + partition + " IN ACCESS EXCLUSIVE MODE;");
+        String sql = """
+                SELECT EXISTS (
+                SELECT 1
+                FROM %s
+                WHERE (tx_id, log_offset) > (CAST(CAST(:txId AS text) AS xid8), :offset)
+                );
+                """.formatted(partition);
+        Boolean unsent = jdbcTemplate.queryForObject(sql, cursorParams(cursor), Boolean.class);
+        if (Boolean.TRUE.equals(unsent)) {
+            return false;
+        }
+        jdbcTemplate.getJdbcTemplate().execute("DROP TABLE " + partition + ";");
+        return true;
+    }
+
+    /**
+     * Builds name of daily partition.
+     *
+     * @param day day (UTC) of messages stored in partition
+     * @return partition name
+     */
+    public static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + day.format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+
+    private Map<String, Object> cursorParams(OutboxLogCursor cursor) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("txId", cursor.getTxId());
+        params.put("offset", cursor.getOffset());
+        return params;
+    }
+
+}
@@ -1,16 +1,26 @@
 package com.example.Contractor.Repository;
 
+import com.example.Contractor.DTO.OutboxBacklog;
 import com.example.Contractor.DTO.OutboxMessage;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Types;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.Optional;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
 
 /**
  * Provides access to database.
@@ -19,78 +29,343 @@ import java.util.Optional;
 @Repository
 public class OutboxRepository {
 
+    /**
+     * Name of channel used for notifications about saved messages.
+     */
+    public static final String NOTIFY_CHANNEL = "outbox";
+
+    /**
+     * Max amount of bind parameters of one statement accepted by PostgreSQL.
+     */
+    private static final int MAX_BIND_PARAMS = 32767;
+
     @Autowired
     private NamedParameterJdbcTemplate jdbcTemplate;
 
+    @Value("${app.outbox.notify}")
+    private boolean notify;
+
+    private final RowMapper<OutboxMessage> rowMapper = (rs, rowNum) -> new OutboxMessage(
+            rs.getString("id"),
+            rs.getString("payload"),
+            rs.getBytes("payload_bin"),
+            rs.getString("content_encoding"),
+            rs.getLong("seq"),
+            0,
+            rs.getTimestamp("created_at")
+    );
+
     /**
      * Saves passed OutboxMessage instance to 'outbox' database table.
+     * New message of the same contractor replaces unsent one and resets its retry state, but keeps its lease,
+     * so the new message is not claimed by other sender while the old one is being sent.
+     * It becomes claimable after the sender releases the lease (see {@link #deleteLeased(String, List)}) or the lease expires.
+     * <p>
+     * If {@code app.outbox.notify} is on, also sends notification to listeners of outbox channel.
+     * PostgreSQL delivers it on commit and merges identical notifications of one transaction.
      *
      * @param message message must be saved
-     * @return OutboxMessage if successful, otherwise - Optional.empty()
+     * @return saved rows amount
      */
-    public Optional<OutboxMessage> save(OutboxMessage message) {
+    public int save(OutboxMessage message) {
         String sql = """
-                INSERT INTO outbox
-                SELECT :id, :payload
+                INSERT INTO outbox (id, payload, payload_bin, content_encoding)
+                VALUES (:id, :payload, :compressedPayload, :contentEncoding)
                 ON CONFLICT (id)
-                DO UPDATE SET id = :id, payload = :payload;
+                DO UPDATE SET id = :id, payload = :payload, payload_bin = :compressedPayload,
+                content_encoding = :contentEncoding, seq = nextval('outbox_seq'),
+                attempts = 0, next_attempt_at = now(), last_error = NULL;
                 """;
         SqlParameterSource params = new BeanPropertySqlParameterSource(message);
-        jdbcTemplate.update(sql, params);
-        try {
-            return Optional.ofNullable(
-                    jdbcTemplate.queryForObject("""
-                            SELECT *
-                            FROM outbox
-                            WHERE id = :id
-                            """,
-                            Collections.singletonMap("id", message.getId()),
-                            (rs, rowNum) -> new OutboxMessage(
-                                    rs.getString("id"),
-                                    rs.getString("payload")
-                            )));
-        } catch (EmptyResultDataAccessException exception) {
-            return Optional.empty();
+        int saved = jdbcTemplate.update(sql, params);
+        if (notify) {
+            jdbcTemplate.query("SELECT pg_notify(:channel, '');",
+                    Collections.singletonMap("channel", NOTIFY_CHANNEL), (RowCallbackHandler) rs -> { });
         }
+        return saved;
     }
 
     /**
-     * Retrieves first OutboxMessage entity from 'outbox' table.
+     * Saves passed OutboxMessage instances to 'outbox' database table by multi-row statements.
+     * Works as {@link #save(OutboxMessage)} for each message; of several messages of the same contractor
+     * only the last one is saved, since the table keeps one unsent message per contractor.
+     * Statement takes four parameters per message and PostgreSQL accepts at most {@value #MAX_BIND_PARAMS} of them,
+     * so messages are split between several statements if needed. Notification is sent once.
      *
-     * @return OutboxMessage if successful, otherwise - Optional.empty()
+     * @param messages messages must be saved
+     * @return saved rows amount
      */
-    public Optional<OutboxMessage> getFirst() {
+    public int saveAll(List<OutboxMessage> messages) {
+        Map<String, OutboxMessage> latest = new LinkedHashMap<>();
+        messages.forEach(message -> latest.put(message.getId(), message));
+        if (latest.isEmpty()) {
+            return 0;
+        }
+        List<OutboxMessage> rows = new ArrayList<>(latest.values());
+        int limit = MAX_BIND_PARAMS / 4;
+        int saved = 0;
+        for (int from = 0; from < rows.size(); from += limit) {
+            saved += upsertRows(rows.subList(from, Math.min(from + limit, rows.size())));
+        }
+        if (notify) {
+            jdbcTemplate.query("SELECT pg_notify(:channel, '');",
+                    Collections.singletonMap("channel", NOTIFY_CHANNEL), (RowCallbackHandler) rs -> { });
+        }
+        return saved;
+    }
+
+    private int upsertRows(List<OutboxMessage> messages) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringJoiner values = new StringJoiner(", ");
+        int i = 0;
+        for (OutboxMessage message : messages) {
+            values.add("(:id%1$d, :payload%1$d, :compressedPayload%1$d, :contentEncoding%1$d)".formatted(i));
+            params.addValue("id" + i, message.getId());
+            params.addValue("payload" + i, message.getPayload());
+            params.addValue("compressedPayload" + i, message.getCompressedPayload(), Types.BINARY);
+            params.addValue("contentEncoding" + i, message.getContentEncoding());
+            i++;
+        }
         String sql = """
-                SELECT *
+                INSERT INTO outbox (id, payload, payload_bin, content_encoding)
+                VALUES %s
+                ON CONFLICT (id)
+                DO UPDATE SET payload = EXCLUDED.payload, payload_bin = EXCLUDED.payload_bin,
+                content_encoding = EXCLUDED.content_encoding, seq = nextval('outbox_seq'),
+                attempts = 0, next_attempt_at = now(), last_error = NULL;
+                """.formatted(values);
+        return jdbcTemplate.update(sql, params);
+    }
+
+    /**
+     * Leases up to {@code limit} OutboxMessage entities from 'outbox' table.
+     * <p>
+     * Leasing is single short statement - no transaction is held while leased messages are sent.
+     * Rows leased by other senders are skipped until their lease expires,
+     * so messages of crashed sender are reclaimed automatically.
+     * Messages waiting for retry are skipped until their next attempt time.
+     *
+     * @param owner identifier of sender
+     * @param limit max amount of leased entities
+     * @param lease lease duration in milliseconds
+     * @return leased OutboxMessage instances ordered by {@code seq} (can be empty)
+     */
+    public List<OutboxMessage> claimBatch(String owner, int limit, long lease) {
+        String sql = """
+                UPDATE outbox
+                SET lease_owner = :owner, lease_until = now() + :lease * interval '1 millisecond'
+                WHERE id IN (
+                SELECT id
+                FROM outbox
+                WHERE next_attempt_at <= now()
+                AND (lease_until IS NULL OR lease_until < now())
+                ORDER BY seq
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+                )
+                RETURNING *;
+                """;
+        Map<String, Object> params = new HashMap<>();
+        params.put("owner", owner);
+        params.put("limit", limit);
+        params.put("lease", lease);
+        return sortBySeq(jdbcTemplate.query(sql, params, rowMapper));
+    }
+
+    /**
+     * Leases up to {@code limit} OutboxMessage entities of one partition in order of writing.
+     * <p>
+     * Messages are partitioned by hash of id (Contractor id),
+     * so all messages of one contractor always belong to the same partition.
+     * Rows leased by other senders and messages waiting for retry are skipped.
+     *
+     * @param partition number of partition (from 0 to {@code partitions - 1})
+     * @param partitions total amount of partitions
+     * @param owner identifier of sender
+     * @param limit max amount of leased entities
+     * @param lease lease duration in milliseconds
+     * @return leased OutboxMessage instances ordered by {@code seq}
+     */
+    public List<OutboxMessage> claimPartition(int partition, int partitions, String owner, int limit, long lease) {
+        String sql = """
+                UPDATE outbox
+                SET lease_owner = :owner, lease_until = now() + :lease * interval '1 millisecond'
+                WHERE id IN (
+                SELECT id
                 FROM outbox
-                LIMIT 1
+                WHERE abs(hashtext(id)::bigint) % :partitions = :partition
+                AND next_attempt_at <= now()
+                AND (lease_until IS NULL OR lease_until < now())
+                ORDER BY seq
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+                )
+                RETURNING *;
+                """;
+        Map<String, Object> params = new HashMap<>();
+        params.put("partition", partition);
+        params.put("partitions", partitions);
+        params.put("owner", owner);
+        params.put("limit", limit);
+        params.put("lease", lease);
+        return sortBySeq(jdbcTemplate.query(sql, params, rowMapper));
+    }
+
+    /**
+     * Retrieves last value assigned to {@code seq} field of OutboxMessage entities.
+     *
+     * @return last assigned sequence value
+     */
+    public long getLastSeq() {
+        String sql = """
+                SELECT last_value
+                FROM outbox_seq;
                 """;
-        try {
-            return Optional.ofNullable(
-                    jdbcTemplate.queryForObject(
-                            sql, new HashMap<>(),
-                            (rs, num) -> new OutboxMessage(
-                                    rs.getString("id"),
-                                    rs.getString("payload")
-                            )));
-        } catch (EmptyResultDataAccessException exception) {
-            return Optional.empty();
+        return jdbcTemplate.queryForObject(sql, new HashMap<>(), Long.class);
+    }
+
+    /**
+     * Retrieves amount of OutboxMessage entities and age of the oldest one.
+     *
+     * @return current state of 'outbox' table
+     */
+    public OutboxBacklog getBacklog() {
+        String sql = """
+                SELECT COUNT(*) AS size,
+                COALESCE(EXTRACT(EPOCH FROM now() - MIN(created_at)), 0) AS oldest_age
+                FROM outbox;
+                """;
+        return jdbcTemplate.queryForObject(sql, new HashMap<>(),
+                (rs, rowNum) -> new OutboxBacklog(
+                        rs.getLong("size"),
+                        rs.getDouble("oldest_age")
+                ));
+    }
+
+    /**
+     * Registers failed sending attempt of passed OutboxMessage entities.
+     * <p>
+     * Next attempt is postponed with exponential backoff:
+     * {@code initialBackoff * 2^(attempts - 1)} milliseconds, but not more than {@code maxBackoff}.
+     *
+     * Only messages still leased by passed owner and not replaced after leasing (their {@code seq} was not changed)
+     * are updated; their lease is released. Replaced message is not charged with the attempt,
+     * only its lease is released, so it can be claimed at once.
+     *
+     * @param messages failed leased messages
+     * @param owner identifier of sender
+     * @param error reason of failure
+     * @param initialBackoff delay before first retry in milliseconds
+     * @param maxBackoff max delay between retries in milliseconds
+     * @return updated entities amount
+     */
+    public int markFailed(List<OutboxMessage> messages, String owner, String error, long initialBackoff, long maxBackoff) {
+        if (messages.isEmpty()) {
+            return 0;
         }
+        String sql = """
+                UPDATE outbox
+                SET attempts = attempts + 1,
+                last_error = :error,
+                next_attempt_at = now() + LEAST(:maxBackoff, :initialBackoff * power(2, attempts)) * interval '1 millisecond',
+                lease_owner = NULL, lease_until = NULL
+                WHERE lease_owner = :owner AND (id, seq) IN (:keys);
+                """;
+        Map<String, Object> params = new HashMap<>();
+        params.put("keys", messages.stream()
+                .map(message -> new Object[]{message.getId(), message.getSeq()})
+                .toList());
+        params.put("ids", messages.stream()
+                .map(OutboxMessage::getId)
+                .toList());
+        params.put("owner", owner);
+        params.put("error", error);
+        params.put("initialBackoff", initialBackoff);
+        params.put("maxBackoff", maxBackoff);
+        int updated = jdbcTemplate.update(sql, params);
+        String releaseSql = """
+                UPDATE outbox
+                SET lease_owner = NULL, lease_until = NULL
+                WHERE lease_owner = :owner AND id IN (:ids);
+                """;
+        jdbcTemplate.update(releaseSql, params);
+        return updated;
+    }
+
+    /**
+     * Moves passed OutboxMessage entities that exhausted their attempts to 'outbox_dead_letter' table.
+     * <p>
+     * Message is moved only if it was not replaced after leasing (its {@code seq} was not changed),
+     * so new payload of the same contractor is never dead-lettered with attempts of the old one.
+     *
+     * @param messages messages must be checked
+     * @param maxAttempts max amount of sending attempts
+     * @return moved entities amount
+     */
+    public int moveToDeadLetter(List<OutboxMessage> messages, int maxAttempts) {
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        String sql = """
+                WITH dead AS (
+                DELETE
+                FROM outbox
+                WHERE (id, seq) IN (:keys) AND attempts >= :maxAttempts
+                RETURNING id, payload, payload_bin, content_encoding, attempts, last_error, created_at
+                )
+                INSERT INTO outbox_dead_letter (id, payload, payload_bin, content_encoding, attempts, last_error, created_at)
+                SELECT id, payload, payload_bin, content_encoding, attempts, last_error, created_at
+                FROM dead;
+                """;
+        Map<String, Object> params = new HashMap<>();
+        params.put("keys", messages.stream()
+                .map(message -> new Object[]{message.getId(), message.getSeq()})
+                .toList());
+        params.put("maxAttempts", maxAttempts);
+        return jdbcTemplate.update(sql, params);
     }
 
     /**
-     * Deletes OutboxMessage entity by passed id value.
+     * Deletes sent OutboxMessage entities that are still leased by passed owner.
+     * <p>
+     * Message is deleted only if it was not replaced after leasing (its {@code seq} was not changed);
+     * lease of replaced message is released, so it can be claimed at once.
      *
-     * @param id value of id field of OutboxMessage must be deleted
+     * @param owner identifier of sender
+     * @param messages leased messages
      * @return deleted entities amount
      */
-    public int deleteById(String id) {
+    public int deleteLeased(String owner, List<OutboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return 0;
+        }
         String sql = """
                 DELETE
                 FROM outbox
-                WHERE id = :id;
+                WHERE lease_owner = :owner AND (id, seq) IN (:keys);
+                """;
+        Map<String, Object> params = new HashMap<>();
+        params.put("owner", owner);
+        params.put("keys", messages.stream()
+                .map(message -> new Object[]{message.getId(), message.getSeq()})
+                .toList());
+        params.put("ids", messages.stream()
+                .map(OutboxMessage::getId)
+                .toList());
+        int deleted = jdbcTemplate.update(sql, params);
+        String releaseSql = """
+                UPDATE outbox
+                SET lease_owner = NULL, lease_until = NULL
+                WHERE lease_owner = :owner AND id IN (:ids);
                 """;
-        return jdbcTemplate.update(sql, Collections.singletonMap("id", id));
+        jdbcTemplate.update(releaseSql, params);
+        return deleted;
+    }
+
+    private List<OutboxMessage> sortBySeq(List<OutboxMessage> messages) {
+        return messages.stream()
+                .sorted(Comparator.comparingLong(OutboxMessage::getSeq))
+                .toList();
     }
 
 }
@@ -0,0 +1,243 @@
+package com.example.Contractor.Service.Cached;
+
+import com.example.Contractor.DTO.Contractor;
+import com.example.Contractor.Repository.ContractorRepository;
+import com.example.Contractor.search.ContractorChangedEvent;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.util.ByteUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Caches Contractor entities in two levels and resolves their related data from reference snapshot.
+ * <p>
+ * Only 'contractor' row is cached, so changes of Country, Industry or OrgForm do not make entries outdated.
+ * L1 is bounded local Caffeine cache (W-TinyLFU eviction), L2 is Redis cache with key - contractors::{id}.
+ * Concurrent misses of the same id are loaded from repository once: L1 holds future of the first reader,
+ * which loads entity on its own thread outside of cache computation, the rest wait for that future.
+ * Entries are evicted from both levels after transaction saving or deleting Contractor is committed;
+ * other instances evict their L1 entries on message from {@link #EVICT_CHANNEL} Redis channel.
+ * Eviction also leaves short-lived tombstone in Redis; row loaded before the change is not written to L2
+ * while tombstone exists, so reader that raced with the change can not put outdated row back for the whole ttl.
+ * Hits and misses of L1 are exposed as {@code cache.gets} metric of {@code contractors.l1} cache,
+ * hits and misses of L2 - as {@code contractor.cache.l2.gets} metric.
+ */
+@Service
+public class ContractorCachedService implements MessageListener {
+
+    /**
+     * Name of Redis cache.
+     */
+    public static final String CACHE_NAME = "contractors";
+
+    /**
+     * Redis channel of evicted ids.
+     */
+    public static final String EVICT_CHANNEL = "contractors:evict";
+
+    /**
+     * Prefix of Redis keys of tombstones; followed by contractor id.
+     */
+    public static final String TOMBSTONE_PREFIX = "contractors:tombstone:";
+
+    /**
+     * Sets entry (KEYS[1]) to value ARGV[1] with ttl ARGV[2] milliseconds unless tombstone (KEYS[2]) exists.
+     */
+    private static final byte[] PUT_SCRIPT = """
+            if redis.call('EXISTS', KEYS[2]) == 1 then
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            return 1
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private final Logger logger = LogManager.getLogger();
+
+    @Autowired
+    private ContractorRepository repository;
+
+    @Autowired
+    private ReferenceCachedService referenceService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${app.contractor.cache.l1.maxSize}")
+    private long maxSize;
+
+    @Value("${app.contractor.cache.l1.ttl}")
+    private long ttl;
+
+    @Value("${app.contractor.cache.l2.ttl}")
+    private long remoteTtl;
+
+    @Value("${app.contractor.cache.tombstoneTtl}")
+    private long tombstoneTtl;
+
+    private AsyncCache<String, Contractor> local;
+
+    private Counter remoteHits;
+
+    private Counter remoteMisses;
+
+    /**
+     * Builds L1 cache and registers metrics of both levels.
+     */
+    @PostConstruct
+    public void init() {
+        local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(registry, local.synchronous(), CACHE_NAME + ".l1");
+        remoteHits = remoteCounter("hit");
+        remoteMisses = remoteCounter("miss");
+    }
+
+    /**
+     * Provides Contractor entity with related data.
+     * Tries L1 cache, then L2 cache; gets entity from repository if neither stores it.
+     * Absent entity is not cached.
+     * <p>
+     * Redis and database are queried after the loading future is put to L1, so no cache lock is held meanwhile.
+     *
+     * @param id value of {@code id} field of Contractor instance
+     * @return Contractor instance and related data
+     */
+    public Optional<List<Object>> get(String id) {
+        CompletableFuture<Contractor> loading = new CompletableFuture<>();
+        CompletableFuture<Contractor> cached = local.get(id, (key, executor) -> loading);
+        if (cached == loading) {
+            try {
+                loading.complete(load(id));
+            } catch (RuntimeException exception) {
+                loading.completeExceptionally(exception);
+                throw exception;
+            }
+        }
+        Contractor contractor;
+        try {
+            contractor = cached.join();
+        } catch (CompletionException exception) {
+            throw exception.getCause() instanceof RuntimeException cause ? cause : exception;
+        }
+        if (contractor == null) {
+            return Optional.empty();
+        }
+        return referenceService.getDetails(contractor);
+    }
+
+    /**
+     * Evicts changed Contractor from both levels and notifies other instances.
+     * Tombstone is written before L2 eviction, and L1 is evicted after it, so L1 is not reloaded from outdated L2 entry.
+     * Redis failure is logged, so it does not fail the change; L1 entries of other instances expire by ttl then.
+     *
+     * @param event published change of Contractor
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ContractorChangedEvent event) {
+        try {
+            redisTemplate.opsForValue().set(TOMBSTONE_PREFIX + event.getId(), "", Duration.ofMillis(tombstoneTtl));
+            remote().evict(event.getId());
+        } catch (RuntimeException exception) {
+            logger.error("Contractor cache eviction was failed - {}", exception.getMessage());
+        }
+        local.synchronous().invalidate(event.getId());
+        try {
+            redisTemplate.convertAndSend(EVICT_CHANNEL, event.getId());
+        } catch (RuntimeException exception) {
+            logger.error("Contractor cache eviction was not published - {}", exception.getMessage());
+        }
+    }
+
+    /**
+     * Evicts L1 entry of id received from {@link #EVICT_CHANNEL}.
+     *
+     * @param message message holding evicted id
+     * @param pattern channel pattern
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        local.synchronous().invalidate(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    private Contractor load(String id) {
+        Contractor contractor = getRemote(id);
+        if (contractor != null) {
+            remoteHits.increment();
+            return contractor;
+        }
+        remoteMisses.increment();
+        Optional<Contractor> loaded = repository.getContractor(id);
+        loaded.ifPresent(found -> putRemote(id, found));
+        return loaded.orElse(null);
+    }
+
+    private Contractor getRemote(String id) {
+        try {
+            return remote().get(id, Contractor.class);
+        } catch (RuntimeException exception) {
+            logger.warn("Contractor was not read from Redis cache - {}", exception.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes entry to L2 in the same format as Redis cache does, unless tombstone of the id exists.
+     */
+    private void putRemote(String id, Contractor contractor) {
+        try {
+            RedisCacheConfiguration configuration = ((RedisCache) remote()).getCacheConfiguration();
+            byte[] key = (configuration.getKeyPrefixFor(CACHE_NAME) + id).getBytes(StandardCharsets.UTF_8);
+            byte[] tombstone = (TOMBSTONE_PREFIX + id).getBytes(StandardCharsets.UTF_8);
+            byte[] value = ByteUtils.getBytes(configuration.getValueSerializationPair().write(contractor));
+            byte[] ttl = String.valueOf(remoteTtl).getBytes(StandardCharsets.UTF_8);
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.scriptingCommands()
+                    .eval(PUT_SCRIPT, ReturnType.INTEGER, 2, key, tombstone, value, ttl));
+        } catch (RuntimeException exception) {
+            logger.warn("Contractor was not written to Redis cache - {}", exception.getMessage());
+        }
+    }
+
+    private org.springframework.cache.Cache remote() {
+        return cacheManager.getCache(CACHE_NAME);
+    }
+
+    private Counter remoteCounter(String result) {
+        return Counter.builder("contractor.cache.l2.gets")
+                .tag("result", result)
+                .register(registry);
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.example.Contractor.Service.Cached;
+
+import com.example.Contractor.DTO.Contractor;
+import com.example.Contractor.DTO.Country;
+import com.example.Contractor.DTO.Industry;
+import com.example.Contractor.DTO.OrgForm;
+import com.example.Contractor.Repository.CountryRepository;
+import com.example.Contractor.Repository.IndustryRepository;
+import com.example.Contractor.Repository.OrgFormRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps in-memory snapshot of all Country, Industry and OrgForm entities indexed by id.
+ * <p>
+ * Unlike cached lists of active entities, snapshot also holds inactive ones, since Contractor may refer to them.
+ * Snapshot is loaded on first use and reloaded after {@code app.reference.snapshot.ttl} milliseconds
+ * or after invalidation by saving or deleting reference entity on this instance.
+ * Changes made by other instances become visible after ttl, or at once if Contractor refers to entity missing in snapshot.
+ */
+@Service
+public class ReferenceCachedService {
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private IndustryRepository industryRepository;
+
+    @Autowired
+    private OrgFormRepository orgFormRepository;
+
+    @Value("${app.reference.snapshot.ttl}")
+    private long ttl;
+
+    private final Lock loadLock = new ReentrantLock();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Resolves related entities of passed Contractor.
+     * Reloads snapshot once if some of them is missing.
+     * As with joining related tables, Contractor without some related entity has no details.
+     *
+     * @param contractor Contractor instance read without related data
+     * @return Contractor instance and related data (Contractor, Country, Industry and OrgForm);
+     * Optional.empty() if related entity is not set or does not exist
+     */
+    public Optional<List<Object>> getDetails(Contractor contractor) {
+        Optional<List<Object>> details = current().details(contractor);
+        if (details.isEmpty() && contractor.getCountry() != null && contractor.getIndustry() != 0 && contractor.getOrgForm() != 0) {
+            invalidate();
+            details = current().details(contractor);
+        }
+        return details;
+    }
+
+    /**
+     * Makes snapshot outdated, so it is reloaded on next use.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null && !current.isExpired(ttl)) {
+            return current;
+        }
+        loadLock.lock();
+        try {
+            current = snapshot;
+            if (current == null || current.isExpired(ttl)) {
+                long loadedGeneration = generation.get();
+                current = load();
+                if (generation.get() == loadedGeneration) {
+                    snapshot = current;
+                }
+            }
+            return current;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private Snapshot load() {
+        return new Snapshot(
+                countryRepository.getAll().stream().collect(Collectors.toUnmodifiableMap(Country::getId, Function.identity())),
+                industryRepository.getAll().stream().collect(Collectors.toUnmodifiableMap(Industry::getId, Function.identity())),
+                orgFormRepository.getAll().stream().collect(Collectors.toUnmodifiableMap(OrgForm::getId, Function.identity())),
+                System.currentTimeMillis()
+        );
+    }
+
+    @AllArgsConstructor
+    private static final class Snapshot {
+
+        private final Map<String, Country> countries;
+
+        private final Map<Integer, Industry> industries;
+
+        private final Map<Integer, OrgForm> orgForms;
+
+        private final long loadedAt;
+
+        private boolean isExpired(long ttl) {
+            return System.currentTimeMillis() - loadedAt >= ttl;
+        }
+
+        private Optional<List<Object>> details(Contractor contractor) {
+            Country country = contractor.getCountry() == null ? null : countries.get(contractor.getCountry());
+            Industry industry = industries.get(contractor.getIndustry());
+            OrgForm orgForm = orgForms.get(contractor.getOrgForm());
+            if (country == null || industry == null || orgForm == null) {
+                return Optional.empty();
+            }
+            return Optional.of(List.of(contractor, country, industry, orgForm));
+        }
+
+    }
+
+}
@@ -1,20 +1,35 @@
 package com.example.Contractor.Service;
 
 import com.example.Contractor.DTO.Contractor;
+import com.example.Contractor.DTO.ContractorChange;
 import com.example.Contractor.DTO.ContractorSearch;
+import com.example.Contractor.DTO.ContractorSearchCursor;
 import com.example.Contractor.DTO.OutboxMessage;
+import com.example.Contractor.DTO.SearchCount;
+import com.example.Contractor.DTO.SearchMode;
 import com.example.Contractor.Exception.SerializingException;
 import com.example.Contractor.Repository.ContractorRepository;
+import com.example.Contractor.Service.Cached.ContractorCachedService;
 import com.example.Contractor.Utils.JsonUtil;
+import com.example.Contractor.outbox.ContractorEventMode;
+import com.example.Contractor.outbox.OutboxMode;
+import com.example.Contractor.search.ContractorChangedEvent;
+import com.example.Contractor.search.ContractorSearchIndex;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Couples controller-layer to repository-layer.
@@ -29,41 +44,107 @@ public class ContractorService {
 
     private final OutboxService outboxService;
 
+    @Value("${app.contractor.events}")
+    private ContractorEventMode eventMode;
+
+    @Value("${app.outbox.mode}")
+    private OutboxMode outboxMode;
+
+    @Value("${app.contractor.search.countThreshold}")
+    private long countThreshold;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired(required = false)
+    private ContractorSearchIndex searchIndex;
+
+    @Autowired
+    private ContractorCachedService cachedService;
+
+    /**
+     * Checks that delta events are not collapsed by outbox.
+     */
+    @PostConstruct
+    public void init() {
+        if (eventMode == ContractorEventMode.DELTA && outboxMode != OutboxMode.LOG) {
+            throw new IllegalStateException("Delta events require app.outbox.mode=LOG - "
+                    + "other outbox modes keep only the last unsent event of contractor");
+        }
+    }
+
     /**
      * Saves Contractor instance in database.
      * Also saves message in outbox table to send to RabbitMQ.
+     * In DELTA event mode message holds only changed fields; it is not saved if nothing was changed.
+     * Saved state is published as {@link ContractorChangedEvent}.
      *
      * @param contractor instance that must be added or updated
      * @return added or updated {@link Contractor} instance
      */
     @Transactional
     public Optional<Contractor> save(Contractor contractor) {
+        if (eventMode == ContractorEventMode.DELTA) {
+            Optional<ContractorChange> change = repository.saveWithDelta(contractor);
+            change.map(ContractorChange::getDelta)
+                    .ifPresent(delta -> outboxService.save(new OutboxMessage(contractor.getId(), delta)));
+            return published(change.map(ContractorChange::getContractor));
+        }
         outboxService.save(createMessage(contractor));
-        return repository.save(contractor);
+        return published(repository.save(contractor));
     }
 
     /**
-     * Provides access to get method of repository-layer.
+     * Saves several Contractor instances in one transaction.
+     * <p>
+     * Contractors are upserted by one statement returning saved rows, and their outbox messages are saved by one statement.
+     * In DELTA event mode contractors are saved one by one, since each change needs its own delta.
+     * Returned saved states are published as {@link ContractorChangedEvent}.
+     *
+     * @param contractors instances with distinct ids that must be added or updated
+     */
+    @Transactional
+    public void saveBatch(List<Contractor> contractors) {
+        if (eventMode == ContractorEventMode.DELTA) {
+            contractors.forEach(this::save);
+            return;
+        }
+        List<Contractor> saved = repository.saveAll(contractors);
+        outboxService.saveAll(contractors.stream().map(this::createMessage).toList());
+        saved.forEach(contractor -> eventPublisher.publishEvent(new ContractorChangedEvent(contractor.getId(), contractor)));
+    }
+
+    /**
+     * Provides Contractor instance with related data from two-level cache.
+     * Cache entry is evicted when Contractor is saved or deleted.
      *
      * @param id value of {@code id} field of {@link Contractor} instance
      * @return {@code Contractor} instance and related data
      */
     public Optional<List<Object>> get(String id) {
-        return repository.get(id);
+        return cachedService.get(id);
     }
 
     /**
      * Provides access to delete method of repository-layer.
+     * Deletion is published as {@link ContractorChangedEvent}.
      *
      * @param id value of {@code id} field of {@link Contractor} instance
      * @return deleted rows count
      */
     public int delete(String id) {
-        return repository.delete(id);
+        int deleted = repository.delete(id);
+        if (deleted > 0) {
+            eventPublisher.publishEvent(new ContractorChangedEvent(id, null));
+        }
+        return deleted;
     }
 
     /**
      * Provides access to search method of repository-layer.
+     * <p>
+     * If in-memory {@link ContractorSearchIndex} is enabled, loaded and supports passed fields,
+     * query is served by it without database round trip.
      *
      * @param contractorSearch sorting fields
      * @param page number of result page that will be returned
@@ -72,9 +153,112 @@ public class ContractorService {
      * returned instances count will be no more than page size
      */
     public List<Contractor> search(ContractorSearch contractorSearch, int page, int size) {
+        if (searchIndex != null && searchIndex.canServe(contractorSearch)) {
+            return searchIndex.search(contractorSearch, page, size);
+        }
         return repository.search(contractorSearch, page, size);
     }
 
+    /**
+     * Provides access to full-text search method of repository-layer.
+     *
+     * @param contractorSearch sorting fields
+     * @param page number of result page that will be returned
+     * @param size amount of returned {@link Contractor} entities
+     * @return {@code Contractor} instances that match the given condition ordered by relevance;
+     * returned instances count will be no more than page size
+     */
+    public List<Contractor> searchRanked(ContractorSearch contractorSearch, int page, int size) {
+        return repository.searchRanked(contractorSearch, page, size);
+    }
+
+    /**
+     * Provides access to keyset search method of repository-layer.
+     *
+     * @param contractorSearch sorting fields
+     * @param cursor position of the last returned entity
+     * @param size amount of returned {@link Contractor} entities
+     * @return {@code Contractor} instances that match the given condition and follow cursor;
+     * returned instances count will be no more than page size
+     */
+    public List<Contractor> searchAfter(ContractorSearch contractorSearch, ContractorSearchCursor cursor, int size) {
+        return repository.searchAfter(contractorSearch, cursor, size);
+    }
+
+    /**
+     * Reads all entities that match passed condition in read-only transaction
+     * and passes them to consumer one by one.
+     *
+     * @param contractorSearch sorting fields
+     * @param consumer receives {@link Contractor} instances ordered by name and id
+     */
+    @Transactional(readOnly = true)
+    public void export(ContractorSearch contractorSearch, Consumer<Contractor> consumer) {
+        repository.export(contractorSearch, consumer);
+    }
+
+    /**
+     * Same as {@link #export(ContractorSearch, Consumer)}, but also passes related data
+     * ({@link com.example.Contractor.DTO.Country}, {@link com.example.Contractor.DTO.Industry}
+     * and {@link com.example.Contractor.DTO.OrgForm}).
+     *
+     * @param contractorSearch sorting fields
+     * @param consumer receives coupled data ordered by name and id
+     */
+    @Transactional(readOnly = true)
+    public void exportDetails(ContractorSearch contractorSearch, Consumer<List<Object>> consumer) {
+        repository.exportDetails(contractorSearch, consumer);
+    }
+
+    /**
+     * Checks if there are matched entities after returned page.
+     * <p>
+     * Pages in CONTAINS mode are ordered by name and id, so the check seeks right after their last entity;
+     * pages in FULL_TEXT mode are checked by offset.
+     *
+     * @param contractorSearch sorting fields
+     * @param mode matching mode of free-text field
+     * @param page number of returned page; ignored in CONTAINS mode
+     * @param size page size
+     * @param last the last entity of returned page
+     * @return true if next page is not empty
+     */
+    public boolean hasMore(ContractorSearch contractorSearch, SearchMode mode, int page, int size, Contractor last) {
+        if (mode == SearchMode.CONTAINS) {
+            return repository.existsAfter(contractorSearch, ContractorSearchCursor.after(last));
+        }
+        return repository.existsBeyond(contractorSearch, mode, (long) (page + 1) * size);
+    }
+
+    /**
+     * Counts entities that match passed condition.
+     * <p>
+     * Count is exact up to {@code app.contractor.search.countThreshold};
+     * above it planner estimation is returned, so large result sets are never counted row by row.
+     *
+     * @param contractorSearch sorting fields
+     * @param mode matching mode of free-text field
+     * @return amount of matched entities
+     */
+    public SearchCount count(ContractorSearch contractorSearch, SearchMode mode) {
+        long count = repository.countUpTo(contractorSearch, mode, countThreshold + 1);
+        if (count <= countThreshold) {
+            return new SearchCount(count, true);
+        }
+        return new SearchCount(Math.max(countThreshold + 1, repository.estimateCount(contractorSearch, mode)), false);
+    }
+
+    /**
+     * Publishes saved state of Contractor; listeners are notified after commit.
+     *
+     * @param saved result of saving
+     * @return the same result
+     */
+    private Optional<Contractor> published(Optional<Contractor> saved) {
+        saved.ifPresent(contractor -> eventPublisher.publishEvent(new ContractorChangedEvent(contractor.getId(), contractor)));
+        return saved;
+    }
+
     /**
      * Creates OutboxMessage instance from passed Contractor instance.
      *
@@ -83,7 +267,7 @@ public class ContractorService {
      */
     private OutboxMessage createMessage(Contractor contractor) {
         try {
-            String payload = new String(JsonUtil.serialize(contractor));
+            String payload = new String(JsonUtil.serialize(contractor), StandardCharsets.UTF_8);
             return new OutboxMessage(contractor.getId(), payload);
         } catch (JsonProcessingException exception) {
             logger.error("Contractor instance not serialized to JSON - {}",
@@ -3,6 +3,7 @@ package com.example.Contractor.Service;
 import com.example.Contractor.DTO.Country;
 import com.example.Contractor.Repository.CountryRepository;
 import com.example.Contractor.Service.Cached.CountryCachedService;
+import com.example.Contractor.Service.Cached.ReferenceCachedService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
@@ -21,6 +22,8 @@ public class CountryService {
 
     private final CountryRepository repository;
 
+    private final ReferenceCachedService referenceService;
+
     /**
      * Returns list of all active Country entities from cache.
      *
@@ -45,26 +48,30 @@ public class CountryService {
 
     /**
      * Saves Country instance in repository.
-     * Also makes cache (with key - countries::all) outdated.
+     * Also makes cache (with key - countries::all) and reference snapshot outdated.
      *
      * @param country instance that must be added or updated
      * @return added/updated Country instance or Optional.empty()
      */
     @CacheEvict(value = "countries", key = "'all'")
     public Optional<Country> save(Country country) {
-        return repository.save(country);
+        Optional<Country> saved = repository.save(country);
+        referenceService.invalidate();
+        return saved;
     }
 
     /**
      * Logically deletes Country entity in repository.
-     * Also makes cache (with key - countries::all) outdated.
+     * Also makes cache (with key - countries::all) and reference snapshot outdated.
      *
      * @param id value of {@code id} field of {@link Country} instance
      * @return deleted rows amount
      */
     @CacheEvict(value = "countries", key = "'all'")
     public int delete(String id) {
-        return repository.delete(id);
+        int deleted = repository.delete(id);
+        referenceService.invalidate();
+        return deleted;
     }
 
 }
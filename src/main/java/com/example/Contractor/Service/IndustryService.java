@@ -3,6 +3,7 @@ package com.example.Contractor.Service;
 import com.example.Contractor.DTO.Industry;
 import com.example.Contractor.Repository.IndustryRepository;
 import com.example.Contractor.Service.Cached.IndustryCachedService;
+import com.example.Contractor.Service.Cached.ReferenceCachedService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
@@ -21,6 +22,8 @@ public class IndustryService {
 
     private final IndustryRepository repository;
 
+    private final ReferenceCachedService referenceService;
+
     /**
      * Returns list of all active Industry entities from cache.
      *
@@ -45,26 +48,30 @@ public class IndustryService {
 
     /**
      * Saves Industry instance in repository.
-     * Also makes cache (with key - industries::all) outdated.
+     * Also makes cache (with key - industries::all) and reference snapshot outdated.
      *
      * @param industry instance that must be added or updated
      * @return added/updated Industry instance or Optional.empty()
      */
     @CacheEvict(value = "industries", key = "'all'")
     public Optional<Industry> save(Industry industry) {
-        return repository.save(industry);
+        Optional<Industry> saved = repository.save(industry);
+        referenceService.invalidate();
+        return saved;
     }
 
     /**
      * Logically deletes Industry entity in repository.
-     * Also makes cache (with key - industries::all) outdated.
+     * Also makes cache (with key - industries::all) and reference snapshot outdated.
      *
      * @param id value of {@code id} field of {@link Industry} instance
      * @return deleted rows amount
      */
     @CacheEvict(value = "industries", key = "'all'")
     public int delete(int id) {
-        return repository.delete(id);
+        int deleted = repository.delete(id);
+        referenceService.invalidate();
+        return deleted;
     }
 
 }
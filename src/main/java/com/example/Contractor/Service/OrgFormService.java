@@ -3,6 +3,7 @@ package com.example.Contractor.Service;
 import com.example.Contractor.DTO.OrgForm;
 import com.example.Contractor.Repository.OrgFormRepository;
 import com.example.Contractor.Service.Cached.OrgFormCachedService;
+import com.example.Contractor.Service.Cached.ReferenceCachedService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
@@ -22,6 +23,8 @@ public class OrgFormService {
 
     private final OrgFormRepository repository;
 
+    private final ReferenceCachedService referenceService;
+
     /**
      * Returns list of all active OrgForm entities from cache.
      *
@@ -46,26 +49,30 @@ public class OrgFormService {
 
     /**
      * Saves OrgForm instance in repository.
-     * Also makes cache (with key - org_forms::all) outdated.
+     * Also makes cache (with key - org_forms::all) and reference snapshot outdated.
      *
      * @param orgForm instance that must be added or updated
      * @return added/updated OrgForm instance or Optional.empty()
      */
     @CacheEvict(value = "org_forms", key = "'all'")
     public Optional<OrgForm> save(OrgForm orgForm) {
-        return repository.save(orgForm);
+        Optional<OrgForm> saved = repository.save(orgForm);
+        referenceService.invalidate();
+        return saved;
     }
 
     /**
      * Logically deletes OrgForm entity in repository.
-     * Also makes cache (with key - org_forms::all) outdated.
+     * Also makes cache (with key - org_forms::all) and reference snapshot outdated.
      *
      * @param id value of {@code id} field of {@link OrgForm} instance
      * @return deleted rows amount
      */
     @CacheEvict(value = "org_forms", key = "'all'")
     public int delete(int id) {
-        return repository.delete(id);
+        int deleted = repository.delete(id);
+        referenceService.invalidate();
+        return deleted;
     }
 
 }
@@ -1,11 +1,19 @@
 package com.example.Contractor.Service;
 
+import com.example.Contractor.DTO.OutboxBacklog;
+import com.example.Contractor.DTO.OutboxLogCursor;
 import com.example.Contractor.DTO.OutboxMessage;
+import com.example.Contractor.Repository.OutboxLogRepository;
 import com.example.Contractor.Repository.OutboxRepository;
+import com.example.Contractor.outbox.OutboxMode;
+import com.example.Contractor.outbox.OutboxPayloadCodec;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Provides means to save and poll OutboxMessage instances.
@@ -13,49 +21,165 @@ import java.util.Optional;
 @Service
 public class OutboxService {
 
+    /**
+     * Name of outbox log consumer used by sender.
+     */
+    public static final String LOG_CONSUMER = "sender";
+
     @Autowired
     private OutboxRepository repository;
 
+    @Autowired
+    private OutboxLogRepository logRepository;
+
+    @Autowired
+    private OutboxPayloadCodec codec;
+
+    @Value("${app.outbox.mode}")
+    private OutboxMode mode;
+
+    @Value("${app.outbox.retry.maxAttempts}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.retry.initialBackoff}")
+    private long initialBackoff;
+
+    @Value("${app.outbox.retry.maxBackoff}")
+    private long maxBackoff;
+
+    @Value("${app.outbox.lease}")
+    private long lease;
+
+    /**
+     * Identifier of this application instance used as owner of outbox leases.
+     */
+    private final String leaseOwner = UUID.randomUUID().toString();
+
     /**
      * Saves passed OutboxMessage instance.
+     * Payload is compressed before saving if payload compression is on.
+     * In LOG mode message is appended to outbox log instead of outbox table.
      *
      * @param message message must be saved
-     * @return result of saving
+     * @return saved rows amount
      */
-    public Optional<OutboxMessage> save(OutboxMessage message) {
-        return repository.save(message);
+    public int save(OutboxMessage message) {
+        OutboxMessage encoded = codec.encode(message);
+        return mode == OutboxMode.LOG ? logRepository.append(encoded) : repository.save(encoded);
     }
 
     /**
-     * Retrieves first OutboxMessage entity from database table and deletes it.
+     * Saves passed OutboxMessage instances by one statement.
+     * Works as {@link #save(OutboxMessage)} for each message.
      *
-     * @return retrieved OutboxMessage instance
+     * @param messages messages must be saved
+     * @return saved rows amount
      */
-    public Optional<OutboxMessage> poll() {
-        Optional<OutboxMessage> optMessage = getFirst();
-        if (optMessage.isPresent()) {
-            deleteById(optMessage.get().getId());
-        }
-        return optMessage;
+    public int saveAll(List<OutboxMessage> messages) {
+        List<OutboxMessage> encoded = messages.stream().map(codec::encode).toList();
+        return mode == OutboxMode.LOG ? logRepository.appendAll(encoded) : repository.saveAll(encoded);
     }
 
     /**
-     * Retrieves first OutboxMessage entity from database table.
+     * Leases batch of OutboxMessage entities for sending.
+     * Lease lasts {@code app.outbox.lease} milliseconds; no transaction is needed.
      *
-     * @return
+     * @param limit max amount of claimed entities
+     * @return leased OutboxMessage instances in order of writing
      */
-    public Optional<OutboxMessage> getFirst() {
-        return repository.getFirst();
+    public List<OutboxMessage> claimBatch(int limit) {
+        return repository.claimBatch(leaseOwner, limit, lease);
     }
 
     /**
-     * Deletes OutboxMessage entity with passed id value.
+     * Leases batch of OutboxMessage entities of one partition for sending.
+     * Lease lasts {@code app.outbox.lease} milliseconds; no transaction is needed.
      *
-     * @param id
+     * @param partition number of partition
+     * @param partitions total amount of partitions
+     * @param limit max amount of claimed entities
+     * @return leased OutboxMessage instances in order of writing
+     */
+    public List<OutboxMessage> claimPartition(int partition, int partitions, int limit) {
+        return repository.claimPartition(partition, partitions, leaseOwner, limit, lease);
+    }
+
+    /**
+     * Deletes sent OutboxMessage entities leased by this instance.
+     * Messages replaced after leasing are kept and released, so their new version is sent by next claim.
+     *
+     * @param messages leased messages confirmed by broker
      * @return deleted entities amount
      */
-    public int deleteById(String id) {
-        return repository.deleteById(id);
+    public int deleteLeased(List<OutboxMessage> messages) {
+        return repository.deleteLeased(leaseOwner, messages);
+    }
+
+    /**
+     * Retrieves last assigned sequence value of OutboxMessage entities.
+     *
+     * @return last assigned sequence value
+     */
+    public long getLastSeq() {
+        return repository.getLastSeq();
+    }
+
+    /**
+     * Retrieves amount of unsent messages and age of the oldest one.
+     *
+     * @return current state of outbox
+     */
+    public OutboxBacklog getBacklog() {
+        if (mode == OutboxMode.LOG) {
+            return logRepository.getCursor(LOG_CONSUMER)
+                    .map(logRepository::getBacklog)
+                    .orElse(new OutboxBacklog(0, 0));
+        }
+        return repository.getBacklog();
+    }
+
+    /**
+     * Leases outbox log cursor of sender for {@code app.outbox.lease} milliseconds.
+     *
+     * @return cursor, Optional.empty() if log is being sent by other instance
+     */
+    public Optional<OutboxLogCursor> leaseLogCursor() {
+        return logRepository.leaseCursor(LOG_CONSUMER, leaseOwner, lease);
+    }
+
+    /**
+     * Reads batch of outbox log messages written after passed cursor.
+     *
+     * @param cursor position of the last sent message
+     * @param limit max amount of read messages
+     * @return messages in order they must be sent
+     */
+    public List<OutboxMessage> readLog(OutboxLogCursor cursor, int limit) {
+        return logRepository.readAfter(cursor, limit);
+    }
+
+    /**
+     * Moves leased outbox log cursor and releases lease.
+     *
+     * @param cursor position of the last sent message
+     * @return true if cursor was moved, false if lease was lost
+     */
+    public boolean commitLogCursor(OutboxLogCursor cursor) {
+        return logRepository.commitCursor(LOG_CONSUMER, leaseOwner, cursor) > 0;
+    }
+
+    /**
+     * Registers failed sending attempt of passed OutboxMessage entities and releases their lease.
+     * Failed messages are retried with exponential backoff;
+     * ones that exhausted {@code app.outbox.retry.maxAttempts} are moved to dead-letter table.
+     *
+     * @param messages failed leased messages
+     * @param error reason of failure
+     * @return amount of messages moved to dead-letter table
+     */
+    public int markFailed(List<OutboxMessage> messages, String error) {
+        repository.markFailed(messages, leaseOwner, error, initialBackoff, maxBackoff);
+        return repository.moveToDeadLetter(messages, maxAttempts);
     }
 
 }
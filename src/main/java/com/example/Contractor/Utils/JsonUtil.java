@@ -1,10 +1,11 @@
 package com.example.Contractor.Utils;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
- * Provides means for serializing objects to JSON format.
+ * Provides means for serializing objects to JSON format and parsing JSON.
  */
 public final class JsonUtil {
 
@@ -21,4 +22,15 @@ public final class JsonUtil {
         return mapper.writeValueAsBytes(object);
     }
 
+    /**
+     * Parses passed JSON as tree.
+     *
+     * @param json
+     * @return root node of parsed JSON
+     */
+    public static JsonNode readTree(String json) throws JsonProcessingException {
+        ObjectMapper mapper = new ObjectMapper();
+        return mapper.readTree(json);
+    }
+
 }
@@ -0,0 +1,169 @@
+package com.example.Contractor.batch;
+
+import com.example.Contractor.DTO.BatchItemResult;
+import com.example.Contractor.DTO.Contractor;
+import com.example.Contractor.Service.ContractorService;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Saves contractors from JSON array of arbitrary size.
+ * <p>
+ * Array is read incrementally by Jackson streaming parser, so contractors of only one chunk of
+ * {@code app.contractor.batch.chunkSize} items are held in memory. Report is not streamed: it keeps
+ * one small {@link BatchItemResult} per item until the whole array is imported.
+ * Each chunk is saved in one transaction; if database rejects it, items of the chunk are saved one by one to find rejected ones.
+ */
+@Component
+public class ContractorBatchImporter {
+
+    private static final int MAX_ID_LENGTH = 12;
+
+    private final Logger logger = LogManager.getLogger();
+
+    @Autowired
+    private ContractorService service;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Value("${app.contractor.batch.chunkSize}")
+    private int chunkSize;
+
+    /**
+     * Reads and saves all items of JSON array.
+     *
+     * @param input stream holding JSON array of Contractor objects
+     * @return result of each item in order of request
+     * @throws IOException if input is not JSON array or can not be read;
+     * if array is malformed in the middle, items read before are saved and FAILED result is added at the end
+     */
+    public List<BatchItemResult> importAll(InputStream input) throws IOException {
+        List<BatchItemResult> results = new ArrayList<>();
+        try (JsonParser parser = mapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Request body must be JSON array");
+            }
+            Map<String, Long> chunk = new LinkedHashMap<>();
+            List<Contractor> contractors = new ArrayList<>();
+            long index = 0;
+            BatchItemResult failure = null;
+            try {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    JsonNode node = parser.readValueAsTree();
+                    Contractor contractor = read(node, index, results);
+                    if (contractor != null) {
+                        Long previous = chunk.put(contractor.getId(), index);
+                        if (previous != null) {
+                            results.set((int) (long) previous, new BatchItemResult(previous, contractor.getId(),
+                                    BatchItemResult.Status.SUPERSEDED, "Item " + index + " has the same id"));
+                            contractors.removeIf(saved -> saved.getId().equals(contractor.getId()));
+                        }
+                        contractors.add(contractor);
+                        results.add(null);
+                        if (contractors.size() == chunkSize) {
+                            saveChunk(contractors, chunk, results);
+                        }
+                    }
+                    index++;
+                }
+            } catch (JsonProcessingException exception) {
+                logger.warn("Contractor batch was interrupted by malformed JSON - {}", exception.getOriginalMessage());
+                failure = new BatchItemResult(index, null, BatchItemResult.Status.FAILED,
+                        "Malformed JSON, rest of request was not read - " + exception.getOriginalMessage());
+            }
+            saveChunk(contractors, chunk, results);
+            if (failure != null) {
+                results.add(failure);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Converts JSON node to Contractor and validates it; result of invalid item is added at once.
+     *
+     * @return Contractor instance, null if item is invalid
+     */
+    private Contractor read(JsonNode node, long index, List<BatchItemResult> results) {
+        String id = node != null && node.path("id").isTextual() ? node.path("id").asText() : null;
+        String error;
+        try {
+            Contractor contractor = mapper.treeToValue(node, Contractor.class);
+            error = validate(contractor);
+            if (error == null) {
+                return contractor;
+            }
+        } catch (JsonProcessingException exception) {
+            error = exception.getOriginalMessage();
+        } catch (IllegalArgumentException exception) {
+            error = exception.getMessage();
+        }
+        results.add(new BatchItemResult(index, id, BatchItemResult.Status.INVALID, error));
+        return null;
+    }
+
+    private String validate(Contractor contractor) {
+        if (contractor == null) {
+            return "Item must be JSON object";
+        }
+        if (contractor.getId() == null || contractor.getId().isBlank() || contractor.getId().length() > MAX_ID_LENGTH) {
+            return "Field 'id' must be non-blank string of at most " + MAX_ID_LENGTH + " characters";
+        }
+        if (contractor.getName() == null || contractor.getName().isBlank()) {
+            return "Field 'name' must be non-blank string";
+        }
+        return null;
+    }
+
+    /**
+     * Saves chunk in one transaction; falls back to saving items one by one if it is rejected.
+     * Chunk is cleared afterwards.
+     */
+    private void saveChunk(List<Contractor> contractors, Map<String, Long> chunk, List<BatchItemResult> results) {
+        if (contractors.isEmpty()) {
+            return;
+        }
+        try {
+            service.saveBatch(contractors);
+            contractors.forEach(contractor -> setResult(results, chunk.get(contractor.getId()), contractor,
+                    BatchItemResult.Status.SAVED, null));
+        } catch (DataAccessException exception) {
+            logger.warn("Contractor batch chunk was rejected, saving items one by one - {}", exception.getMessage());
+            for (Contractor contractor : contractors) {
+                try {
+                    service.save(contractor);
+                    setResult(results, chunk.get(contractor.getId()), contractor, BatchItemResult.Status.SAVED, null);
+                } catch (DataAccessException itemException) {
+                    setResult(results, chunk.get(contractor.getId()), contractor, BatchItemResult.Status.FAILED,
+                            itemException.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+        contractors.clear();
+        chunk.clear();
+    }
+
+    private void setResult(List<BatchItemResult> results, long index, Contractor contractor,
+                           BatchItemResult.Status status, String message) {
+        results.set((int) index, new BatchItemResult(index, contractor.getId(), status, message));
+    }
+
+}
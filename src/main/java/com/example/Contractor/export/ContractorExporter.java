@@ -0,0 +1,185 @@
+package com.example.Contractor.export;
+
+import com.example.Contractor.DTO.Contractor;
+import com.example.Contractor.DTO.ContractorSearch;
+import com.example.Contractor.DTO.Country;
+import com.example.Contractor.DTO.Industry;
+import com.example.Contractor.DTO.OrgForm;
+import com.example.Contractor.Service.ContractorService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes all contractors matching search request to output stream.
+ * <p>
+ * Rows are written as they are read from database cursor, so memory use stays flat regardless of result size.
+ * XLSX workbook is built by streaming POI API, which keeps only a bounded window of rows in memory.
+ */
+@Component
+public class ContractorExporter {
+
+    private static final String CSV_HEADER = "id,parent_id,name,name_full,inn,ogrn,country,industry,org_form,"
+            + "create_date,modify_date,create_user_id,modify_user_id,is_active";
+
+    private static final String[] XLSX_HEADER = {"ID", "Parent ID", "Name", "Full name", "INN", "OGRN",
+        "Country ID", "Country", "Industry ID", "Industry", "Org form ID", "Org form", "Created", "Modified", "Active"};
+
+    @Autowired
+    private ContractorService service;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Value("${app.contractor.export.xlsxWindow}")
+    private int xlsxWindow;
+
+    /**
+     * Writes matched contractors in passed format.
+     *
+     * @param search contains filtering fields
+     * @param format file format
+     * @param output destination stream; is not closed
+     * @throws IOException if writing was failed
+     */
+    public void export(ContractorSearch search, ExportFormat format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        try {
+            switch (format) {
+                case NDJSON -> service.export(search, contractor -> writeLine(writer, toJson(contractor)));
+                case CSV -> {
+                    writeLine(writer, CSV_HEADER);
+                    service.export(search, contractor -> writeLine(writer, toCsv(contractor)));
+                }
+                case XLSX -> writeXlsx(search, output);
+                default -> throw new IllegalArgumentException("Unsupported export format - " + format);
+            }
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes workbook keeping only {@code app.contractor.export.xlsxWindow} rows in memory;
+     * flushed rows are stored in compressed temporary file until workbook is written.
+     * New sheet is started when sheet row limit is reached.
+     */
+    private void writeXlsx(ContractorSearch search, OutputStream output) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(xlsxWindow);
+        workbook.setCompressTempFiles(true);
+        try {
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+            int maxRows = SpreadsheetVersion.EXCEL2007.getMaxRows();
+            Sheet[] sheet = {createSheet(workbook)};
+            int[] rowNum = {1};
+            service.exportDetails(search, details -> {
+                if (rowNum[0] == maxRows) {
+                    sheet[0] = createSheet(workbook);
+                    rowNum[0] = 1;
+                }
+                writeXlsxRow(sheet[0].createRow(rowNum[0]++), details, dateStyle);
+            });
+            workbook.write(output);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private Sheet createSheet(SXSSFWorkbook workbook) {
+        Sheet sheet = workbook.createSheet();
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < XLSX_HEADER.length; i++) {
+            header.createCell(i).setCellValue(XLSX_HEADER[i]);
+        }
+        return sheet;
+    }
+
+    private void writeXlsxRow(Row row, List<Object> details, CellStyle dateStyle) {
+        Contractor contractor = (Contractor) details.get(0);
+        Country country = (Country) details.get(1);
+        Industry industry = (Industry) details.get(2);
+        OrgForm orgForm = (OrgForm) details.get(3);
+        row.createCell(0).setCellValue(contractor.getId());
+        row.createCell(1).setCellValue(contractor.getParentId());
+        row.createCell(2).setCellValue(contractor.getName());
+        row.createCell(3).setCellValue(contractor.getNameFull());
+        row.createCell(4).setCellValue(contractor.getInn());
+        row.createCell(5).setCellValue(contractor.getOgrn());
+        row.createCell(6).setCellValue(contractor.getCountry());
+        row.createCell(7).setCellValue(country.getName());
+        row.createCell(8).setCellValue(contractor.getIndustry());
+        row.createCell(9).setCellValue(industry.getName());
+        row.createCell(10).setCellValue(contractor.getOrgForm());
+        row.createCell(11).setCellValue(orgForm.getName());
+        writeDate(row.createCell(12), contractor.getCreateDate(), dateStyle);
+        writeDate(row.createCell(13), contractor.getModifyDate(), dateStyle);
+        row.createCell(14).setCellValue(contractor.isActive());
+    }
+
+    private void writeDate(Cell cell, Date date, CellStyle dateStyle) {
+        if (date != null) {
+            cell.setCellValue(date);
+            cell.setCellStyle(dateStyle);
+        }
+    }
+
+    private String toJson(Contractor contractor) {
+        try {
+            return mapper.writeValueAsString(contractor);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private String toCsv(Contractor contractor) {
+        return Stream.of(contractor.getId(), contractor.getParentId(), contractor.getName(), contractor.getNameFull(),
+                        contractor.getInn(), contractor.getOgrn(), contractor.getCountry(), contractor.getIndustry(),
+                        contractor.getOrgForm(), contractor.getCreateDate(), contractor.getModifyDate(),
+                        contractor.getCreateUserId(), contractor.getModifyUserId(), contractor.isActive())
+                .map(this::csvValue)
+                .collect(Collectors.joining(","));
+    }
+
+    private String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    private void writeLine(Writer writer, String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+}
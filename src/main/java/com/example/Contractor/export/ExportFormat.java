@@ -0,0 +1,35 @@
+package com.example.Contractor.export;
+
+import lombok.Getter;
+
+/**
+ * Defines file format of contractor export.
+ */
+@Getter
+public enum ExportFormat {
+
+    /**
+     * One JSON object of Contractor per line.
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /**
+     * Comma-separated values with header line.
+     */
+    CSV("text/csv", "csv"),
+
+    /**
+     * Excel workbook with names of related country, industry and org form.
+     */
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+    private final String contentType;
+
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.example.Contractor.outbox;
+
+/**
+ * Defines content of events emitted on Contractor saving.
+ */
+public enum ContractorEventMode {
+
+    /**
+     * Event holds the whole Contractor instance.
+     */
+    FULL,
+
+    /**
+     * Event holds only changed fields with old and new version of Contractor.
+     * Every delta must be delivered, so it requires append-only outbox ({@code app.outbox.mode=LOG}).
+     */
+    DELTA
+
+}
@@ -0,0 +1,79 @@
+package com.example.Contractor.outbox;
+
+import com.example.Contractor.DTO.OutboxLogCursor;
+import com.example.Contractor.Repository.OutboxLogRepository;
+import com.example.Contractor.Service.OutboxService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+
+/**
+ * Maintains daily partitions of outbox log.
+ * <p>
+ * Creates partitions for {@code app.outbox.log.partitionsAhead} days ahead
+ * and drops past partitions whose messages were all sent, so sent messages
+ * are removed without row deletion and vacuuming.
+ * Enabled in LOG outbox mode.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.mode", havingValue = "LOG")
+public class OutboxLogMaintenance {
+
+    private final Logger logger = LogManager.getLogger();
+
+    @Autowired
+    private OutboxLogRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.outbox.log.partitionsAhead}")
+    private int partitionsAhead;
+
+    /**
+     * Creates missing partitions and drops fully sent ones.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.log.maintenanceDelay}")
+    public void maintain() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        try {
+            for (int i = 0; i <= partitionsAhead; i++) {
+                repository.createPartition(today.plusDays(i));
+            }
+            Optional<OutboxLogCursor> cursor = repository.getCursor(OutboxService.LOG_CONSUMER);
+            if (cursor.isEmpty()) {
+                return;
+            }
+            for (String partition : repository.getPartitions()) {
+                LocalDate day = parseDay(partition);
+                if (day != null && day.isBefore(today)
+                        && Boolean.TRUE.equals(transactionTemplate.execute(
+                                status -> repository.dropPartitionIfSent(day, cursor.get())))) {
+                    logger.info("Sent outbox log partition was dropped - {}", partition);
+                }
+            }
+        } catch (DataAccessException exception) {
+            logger.error("Outbox log maintenance was failed - {}", exception.getMessage());
+        }
+    }
+
+    private LocalDate parseDay(String partition) {
+        if (!partition.startsWith(OutboxLogRepository.PARTITION_PREFIX)) {
+            return null;
+        }
+        return LocalDate.parse(partition.substring(OutboxLogRepository.PARTITION_PREFIX.length()),
+                DateTimeFormatter.BASIC_ISO_DATE);
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.example.Contractor.outbox;
+
+import com.example.Contractor.DTO.OutboxBacklog;
+import com.example.Contractor.DTO.OutboxMessage;
+import com.example.Contractor.Service.OutboxService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Collects outbox metrics.
+ * <p>
+ * Backlog size and age of the oldest unsent message are refreshed periodically by one query;
+ * amount of sent messages and end-to-end event latency (from first writing to broker confirmation)
+ * as well as failed attempts and dead-lettered messages are recorded by {@link ScheduleMessageSender}.
+ */
+@Component
+public class OutboxMetrics {
+
+    private final Logger logger = LogManager.getLogger();
+
+    private final OutboxService service;
+
+    private final AtomicReference<OutboxBacklog> backlog = new AtomicReference<>(new OutboxBacklog(0, 0));
+
+    private final Counter sent;
+
+    private final Timer eventLatency;
+
+    private final Counter failed;
+
+    private final Counter dead;
+
+    public OutboxMetrics(OutboxService service, MeterRegistry registry) {
+        this.service = service;
+        Gauge.builder("outbox.backlog.size", backlog, value -> value.get().getSize())
+                .description("Unsent outbox messages")
+                .register(registry);
+        Gauge.builder("outbox.backlog.oldest.age", backlog, value -> value.get().getOldestAge())
+                .description("Age of the oldest unsent outbox message")
+                .baseUnit("seconds")
+                .register(registry);
+        sent = Counter.builder("outbox.messages.sent")
+                .description("Outbox messages confirmed by broker")
+                .register(registry);
+        eventLatency = Timer.builder("outbox.event.latency")
+                .description("Time from outbox writing to broker confirmation")
+                .publishPercentileHistogram()
+                .register(registry);
+        failed = Counter.builder("outbox.messages.failed")
+                .description("Failed attempts of outbox message sending")
+                .register(registry);
+        dead = Counter.builder("outbox.messages.dead")
+                .description("Outbox messages moved to dead-letter table")
+                .register(registry);
+    }
+
+    /**
+     * Refreshes backlog gauges.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.metricsDelay}",
+            initialDelayString = "${app.schedule.initialDelay}")
+    public void refreshBacklog() {
+        try {
+            backlog.set(service.getBacklog());
+        } catch (DataAccessException exception) {
+            logger.warn("Outbox backlog was not refreshed - {}", exception.getMessage());
+        }
+    }
+
+    /**
+     * Records messages confirmed by broker.
+     *
+     * @param messages sent messages
+     */
+    public void recordSent(List<OutboxMessage> messages) {
+        long now = System.currentTimeMillis();
+        for (OutboxMessage message : messages) {
+            if (message.getCreatedAt() != null) {
+                eventLatency.record(Duration.ofMillis(Math.max(0, now - message.getCreatedAt().getTime())));
+            }
+        }
+        sent.increment(messages.size());
+    }
+
+    /**
+     * Records failed sending attempts.
+     *
+     * @param failedAmount amount of messages that were not sent
+     * @param deadAmount amount of messages moved to dead-letter table
+     */
+    public void recordFailed(int failedAmount, int deadAmount) {
+        failed.increment(failedAmount);
+        dead.increment(deadAmount);
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.example.Contractor.outbox;
+
+/**
+ * Defines how {@link ScheduleMessageSender} drains outbox table.
+ */
+public enum OutboxMode {
+
+    /**
+     * Sends one message per scheduler tick.
+     */
+    SINGLE,
+
+    /**
+     * Claims up to {@code app.outbox.batchSize} messages per scheduler tick.
+     * Claimed rows are leased for {@code app.outbox.lease} milliseconds,
+     * so several service instances can drain the same table in parallel.
+     * Messages are published without waiting for confirmation of each one.
+     */
+    BATCH,
+
+    /**
+     * Drains {@code app.outbox.partitions} partitions in parallel, each one by its own worker.
+     * Messages are routed to partitions by hash of contractor id and sent in order of writing,
+     * so events of one contractor are never reordered.
+     */
+    PARTITIONED,
+
+    /**
+     * Appends messages to time-partitioned 'outbox_log' table instead of upserting 'outbox' rows.
+     * Log is never updated - sender moves committed cursor, and partitions are dropped once fully sent.
+     * Every write is sent, while other modes send only the latest state of each contractor.
+     */
+    LOG
+
+}
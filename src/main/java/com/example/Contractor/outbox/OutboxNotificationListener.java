@@ -0,0 +1,140 @@
+package com.example.Contractor.outbox;
+
+import com.example.Contractor.Repository.OutboxRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Wakes up outbox sender as soon as new message is committed.
+ * <p>
+ * Holds one database connection that LISTENs on outbox channel and blocks until notification arrives.
+ * The connection is opened outside of connection pool, so it does not take pool slot for the whole application life;
+ * it is closed on stop, which also unblocks waiting for notifications.
+ * Scheduled polling of {@link ScheduleMessageSender} stays as safety net for lost notifications,
+ * so its fixed delay can be raised without increasing event latency.
+ * Enabled by {@code app.outbox.notify} property.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.notify", havingValue = "true")
+public class OutboxNotificationListener implements SmartLifecycle {
+
+    private final Logger logger = LogManager.getLogger();
+
+    private final String url;
+
+    private final String username;
+
+    private final String password;
+
+    private final ScheduleMessageSender sender;
+
+    private final int timeout;
+
+    private volatile boolean running;
+
+    private volatile Connection connection;
+
+    private Thread worker;
+
+    public OutboxNotificationListener(@Value("${spring.datasource.url}") String url,
+                                      @Value("${spring.datasource.username:}") String username,
+                                      @Value("${spring.datasource.password:}") String password,
+                                      ScheduleMessageSender sender,
+                                      @Value("${app.schedule.fixedDelay}") int timeout) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.sender = sender;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform().name("outbox-listener").daemon().start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        worker.interrupt();
+        Connection current = connection;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException exception) {
+                logger.warn("Outbox listener connection was not closed - {}", exception.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Listens outbox channel until listener is stopped.
+     * Reconnects after fixed delay if connection was lost.
+     */
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                this.connection = connection;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + OutboxRepository.NOTIFY_CHANNEL);
+                }
+                logger.info("Outbox listener started");
+                drain();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(timeout);
+                    if (notifications != null && notifications.length > 0) {
+                        drain();
+                    }
+                }
+            } catch (SQLException exception) {
+                if (running) {
+                    logger.error("Outbox listening was failed - {}", exception.getMessage());
+                    pause();
+                }
+            } finally {
+                connection = null;
+            }
+        }
+    }
+
+    /**
+     * Sends messages until outbox table is empty or sending is failed.
+     */
+    private void drain() {
+        try {
+            int sent;
+            do {
+                sent = sender.pollAndSend();
+            } while (sent > 0 && running);
+        } catch (RuntimeException exception) {
+            logger.error("Outbox draining was failed - {}", exception.getMessage());
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(timeout);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.example.Contractor.outbox;
+
+import com.example.Contractor.DTO.OutboxMessage;
+import io.airlift.compress.Compressor;
+import io.airlift.compress.Decompressor;
+import io.airlift.compress.lz4.Lz4Compressor;
+import io.airlift.compress.lz4.Lz4Decompressor;
+import io.airlift.compress.zstd.ZstdCompressor;
+import io.airlift.compress.zstd.ZstdDecompressor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Compresses payload of outbox messages.
+ * <p>
+ * Supported algorithms (value of {@code app.outbox.compression}): none, lz4 and zstd.
+ * Both are pure Java implementations. Payloads smaller than {@code app.outbox.compression.threshold} bytes
+ * are kept as plain text since compression does not pay off for them.
+ * <p>
+ * zstd messages are standard zstd frames published with {@code zstd} content encoding.
+ * lz4 messages are not LZ4 frames: they are raw LZ4 blocks prefixed with 4-byte (big-endian) length
+ * of uncompressed payload, so they are published with distinct {@code lz4-block} content encoding.
+ */
+@Component
+public class OutboxPayloadCodec {
+
+    public static final String LZ4 = "lz4";
+
+    /**
+     * Content encoding of lz4 messages.
+     */
+    public static final String LZ4_BLOCK = "lz4-block";
+
+    public static final String ZSTD = "zstd";
+
+    private final String algorithm;
+
+    private final int threshold;
+
+    public OutboxPayloadCodec(@Value("${app.outbox.compression}") String algorithm,
+                              @Value("${app.outbox.compression.threshold}") int threshold) {
+        this.algorithm = algorithm.toLowerCase();
+        this.threshold = threshold;
+    }
+
+    /**
+     * Compresses payload of passed message if compression is on and payload is big enough.
+     *
+     * @param message message with plain payload
+     * @return the same message; compressed payload replaces plain one if compression was applied
+     */
+    public OutboxMessage encode(OutboxMessage message) {
+        if (message.getPayload() == null || !(LZ4.equals(algorithm) || ZSTD.equals(algorithm))) {
+            return message;
+        }
+        byte[] plain = message.getPayload().getBytes(StandardCharsets.UTF_8);
+        if (plain.length < threshold) {
+            return message;
+        }
+        message.setCompressedPayload(LZ4.equals(algorithm) ? compressLz4(plain) : compressZstd(plain));
+        message.setContentEncoding(LZ4.equals(algorithm) ? LZ4_BLOCK : algorithm);
+        message.setPayload(null);
+        return message;
+    }
+
+    /**
+     * Restores plain payload of passed message.
+     * Messages saved with {@code lz4} content encoding before it was renamed are decoded as lz4 blocks.
+     *
+     * @param message message with plain or compressed payload
+     * @return plain payload
+     */
+    public static String decode(OutboxMessage message) {
+        if (message.getCompressedPayload() == null) {
+            return message.getPayload();
+        }
+        byte[] compressed = message.getCompressedPayload();
+        byte[] plain = switch (message.getContentEncoding()) {
+            case LZ4_BLOCK, LZ4 -> decompressLz4(compressed);
+            case ZSTD -> decompressZstd(compressed);
+            default -> throw new IllegalArgumentException(
+                    "Unknown content encoding - " + message.getContentEncoding());
+        };
+        return new String(plain, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] compressLz4(byte[] plain) {
+        Compressor compressor = new Lz4Compressor();
+        byte[] output = new byte[Integer.BYTES + compressor.maxCompressedLength(plain.length)];
+        ByteBuffer.wrap(output).putInt(plain.length);
+        int length = compressor.compress(plain, 0, plain.length, output, Integer.BYTES, output.length - Integer.BYTES);
+        return Arrays.copyOf(output, Integer.BYTES + length);
+    }
+
+    private static byte[] compressZstd(byte[] plain) {
+        Compressor compressor = new ZstdCompressor();
+        byte[] output = new byte[compressor.maxCompressedLength(plain.length)];
+        int length = compressor.compress(plain, 0, plain.length, output, 0, output.length);
+        return Arrays.copyOf(output, length);
+    }
+
+    private static byte[] decompressLz4(byte[] compressed) {
+        Decompressor decompressor = new Lz4Decompressor();
+        byte[] output = new byte[ByteBuffer.wrap(compressed).getInt()];
+        decompressor.decompress(compressed, Integer.BYTES, compressed.length - Integer.BYTES, output, 0, output.length);
+        return output;
+    }
+
+    private static byte[] decompressZstd(byte[] compressed) {
+        Decompressor decompressor = new ZstdDecompressor();
+        byte[] output = new byte[(int) ZstdDecompressor.getDecompressedSize(compressed, 0, compressed.length)];
+        decompressor.decompress(compressed, 0, compressed.length, output, 0, output.length);
+        return output;
+    }
+
+}
@@ -1,24 +1,41 @@
 package com.example.Contractor.outbox;
 
+import com.example.Contractor.DTO.OutboxLogCursor;
 import com.example.Contractor.DTO.OutboxMessage;
 import com.example.Contractor.Exception.RabbitSendingException;
 import com.example.Contractor.Service.OutboxService;
-import com.example.Contractor.rabbitMQ.RabbitProducer;
+import com.example.Contractor.publisher.EventPublisher;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Realizes outbox pattern.
- * Polls messages from outbox database table and sends them to RabbitMQ.
+ * Polls messages from outbox database table and sends them by {@link EventPublisher} (RabbitMQ by default).
  */
 @Component
 @EnableScheduling
@@ -26,25 +43,296 @@ public class ScheduleMessageSender {
 
     private final Logger logger = LogManager.getLogger();
 
+    private static final String NOT_CONFIRMED = "RabbitMQ not send confirmation of message receiving";
+
+    private final Lock drainLock = new ReentrantLock();
+
     @Autowired
     private OutboxService service;
 
     @Autowired
-    private RabbitProducer producer;
+    private EventPublisher publisher;
+
+    @Value("${app.outbox.mode}")
+    private OutboxMode mode;
+
+    @Value("${app.outbox.batchSize}")
+    private int batchSize;
+
+    @Value("${app.outbox.partitions}")
+    private int partitions;
+
+    @Value("${app.outbox.concurrency}")
+    private int concurrency;
+
+    @Value("${app.outbox.retry.maxAttempts}")
+    private int maxAttempts;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private OutboxMetrics metrics;
+
+    private ExecutorService workers;
+
+    private Semaphore workerPermits;
+
+    private AtomicLongArray partitionLags;
+
+    /**
+     * Starts virtual thread workers and registers worker and partition gauges if sender works in PARTITIONED mode.
+     * <p>
+     * Every task runs in its own virtual thread; at most {@code app.outbox.concurrency} tasks work at the same time,
+     * the rest wait for permit without occupying platform threads. Workers publish through {@link EventPublisher#sendAll},
+     * so they never block in {@code waitForConfirms}; other modes send from the scheduler platform thread.
+     */
+    @PostConstruct
+    public void init() {
+        if (mode == OutboxMode.PARTITIONED) {
+            workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("outbox-worker-", 0).factory());
+            workerPermits = new Semaphore(concurrency);
+            Gauge.builder("outbox.workers.active", workerPermits, permits -> concurrency - permits.availablePermits())
+                    .description("Outbox sending tasks running at the moment")
+                    .register(registry);
+            partitionLags = new AtomicLongArray(partitions);
+            for (int i = 0; i < partitions; i++) {
+                int partition = i;
+                Gauge.builder("outbox.partition.lag", partitionLags, lags -> lags.get(partition))
+                        .description("Outbox writes made since oldest unsent message of partition")
+                        .tag("partition", String.valueOf(partition))
+                        .register(registry);
+            }
+        }
+    }
+
+    /**
+     * Stops workers.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
 
     /**
      * Periodically polls messages from database and sends to broker.
+     * <p>
+     * Messages are leased by short statements and sent outside any database transaction,
+     * so slow broker never holds database connections.
+     * <p>
+     * Also called by {@link OutboxNotificationListener} when new messages are committed;
+     * calls from scheduler and listener never run at the same time.
+     *
+     * @return amount of sent messages
      */
     @Scheduled(fixedDelayString = "${app.schedule.fixedDelay}",
             initialDelayString = "${app.schedule.initialDelay}")
-    @Transactional
-    public void pollAndSend() {
-        Optional<OutboxMessage> optMessage = service.poll();
-        if (optMessage.isPresent()) {
-            OutboxMessage message = optMessage.get();
+    public int pollAndSend() {
+        drainLock.lock();
+        try {
+            return switch (mode) {
+                case SINGLE -> sendFirst();
+                case BATCH -> sendClaimed(service.claimBatch(batchSize));
+                case PARTITIONED -> drainPartitions();
+                case LOG -> sendLog();
+            };
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * Sends first message of outbox table that is not waiting for retry.
+     * <p>
+     * Message is deleted only after broker confirmation. Failed attempt is registered,
+     * so message is retried with backoff (or dead-lettered) while the next ones keep flowing;
+     * then RabbitSendingException is thrown.
+     *
+     * @return amount of sent messages
+     */
+    private int sendFirst() {
+        List<OutboxMessage> messages = service.claimBatch(1);
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        OutboxMessage message = messages.getFirst();
+        try {
             send(message);
-            logger.trace("Message was sent to RabbitMQ - " +
-                    "Contractor instance with id = {}", message.getId());
+        } catch (RabbitSendingException exception) {
+            markFailed(messages, exception.getMessage());
+            throw exception;
+        }
+        service.deleteLeased(messages);
+        metrics.recordSent(messages);
+        logger.trace("Message was sent to RabbitMQ - " +
+                "Contractor instance with id = {}", message.getId());
+        return 1;
+    }
+
+    /**
+     * Sends next batch of outbox log messages and moves committed cursor.
+     * <p>
+     * Cursor is moved past the longest confirmed prefix of batch;
+     * the rest is sent again by the next call, so order of the log is kept.
+     *
+     * @return amount of sent messages
+     */
+    private int sendLog() {
+        Optional<OutboxLogCursor> optCursor = service.leaseLogCursor();
+        if (optCursor.isEmpty()) {
+            return 0;
+        }
+        OutboxLogCursor cursor = optCursor.get();
+        try {
+            List<OutboxMessage> messages = service.readLog(cursor, batchSize);
+            if (messages.isEmpty()) {
+                return 0;
+            }
+            List<Boolean> confirms;
+            try {
+                confirms = publisher.sendAll(messages);
+            } catch (IOException | TimeoutException | InterruptedException exception) {
+                if (exception instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                logger.error("Messages sending to RabbitMQ was failed - {}", exception.getMessage());
+                confirms = Collections.nCopies(messages.size(), false);
+            }
+            int sent = 0;
+            while (sent < messages.size() && confirms.get(sent)) {
+                sent++;
+            }
+            if (sent > 0) {
+                OutboxMessage last = messages.get(sent - 1);
+                cursor = new OutboxLogCursor(last.getTxId(), last.getSeq());
+                metrics.recordSent(messages.subList(0, sent));
+            }
+            if (sent < messages.size()) {
+                metrics.recordFailed(messages.size() - sent, 0);
+            }
+            logger.trace("Log messages were sent to RabbitMQ - {} of {} read", sent, messages.size());
+            return sent;
+        } finally {
+            service.commitLogCursor(cursor);
+        }
+    }
+
+    /**
+     * Drains all partitions in parallel - each one by its own virtual thread task.
+     * <p>
+     * Messages of one contractor always belong to the same partition and are sent in order of writing,
+     * while messages of different partitions are sent concurrently.
+     *
+     * @return amount of sent messages
+     */
+    private int drainPartitions() {
+        long lastSeq = service.getLastSeq();
+        List<Future<Integer>> results = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            int partition = i;
+            results.add(submit(() -> drainPartition(partition, lastSeq)));
+        }
+        int sent = 0;
+        for (Future<Integer> result : results) {
+            try {
+                sent += result.get();
+            } catch (ExecutionException exception) {
+                logger.error("Outbox partition draining was failed - {}", exception.getCause().getMessage());
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return sent;
+    }
+
+    /**
+     * Runs passed task in virtual thread once concurrency limit allows it.
+     *
+     * @param task sending task
+     * @return result of task
+     */
+    private Future<Integer> submit(Callable<Integer> task) {
+        return workers.submit(() -> {
+            workerPermits.acquire();
+            try {
+                return task.call();
+            } finally {
+                workerPermits.release();
+            }
+        });
+    }
+
+    /**
+     * Leases batch of messages of one partition, sends them and updates partition lag.
+     *
+     * @param partition number of partition
+     * @param lastSeq last sequence value assigned before draining
+     * @return amount of sent messages
+     */
+    private int drainPartition(int partition, long lastSeq) {
+        List<OutboxMessage> messages = service.claimPartition(partition, partitions, batchSize);
+        partitionLags.set(partition, messages.isEmpty() ? 0 : Math.max(0, lastSeq - messages.getFirst().getSeq()));
+        return sendClaimed(messages);
+    }
+
+    /**
+     * Sends leased messages without waiting for confirmation of each one.
+     * <p>
+     * Acked messages are deleted with single statement unless they were replaced meanwhile;
+     * nacked and not confirmed ones are postponed with backoff or moved to dead-letter table.
+     *
+     * @param messages messages leased by this sender
+     * @return amount of sent messages
+     */
+    private int sendClaimed(List<OutboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        List<Boolean> confirms;
+        String error = NOT_CONFIRMED;
+        try {
+            confirms = publisher.sendAll(messages);
+        } catch (IOException | TimeoutException | InterruptedException exception) {
+            if (exception instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            logger.error("Messages sending to RabbitMQ was failed - {}", exception.getMessage());
+            confirms = Collections.nCopies(messages.size(), false);
+            error = exception.getMessage();
+        }
+        List<OutboxMessage> sent = new ArrayList<>(messages.size());
+        List<OutboxMessage> failed = new ArrayList<>();
+        for (int i = 0; i < messages.size(); i++) {
+            if (confirms.get(i)) {
+                sent.add(messages.get(i));
+            } else {
+                failed.add(messages.get(i));
+            }
+        }
+        service.deleteLeased(sent);
+        metrics.recordSent(sent);
+        markFailed(failed, error);
+        logger.trace("Messages were sent to RabbitMQ - {} of {} claimed", sent.size(), messages.size());
+        return sent.size();
+    }
+
+    /**
+     * Registers failed attempt of passed messages.
+     *
+     * @param messages failed messages
+     * @param error reason of failure
+     */
+    private void markFailed(List<OutboxMessage> messages, String error) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        int dead = service.markFailed(messages, error);
+        metrics.recordFailed(messages.size(), dead);
+        if (dead > 0) {
+            logger.error("{} messages were moved to dead-letter table after {} failed attempts - {}", dead, maxAttempts, error);
         }
     }
 
@@ -56,12 +344,17 @@ public class ScheduleMessageSender {
      */
     private void send(OutboxMessage message) {
         try {
-            if (!producer.send(message.getPayload())) {
+            boolean confirmed = message.getContentEncoding() == null
+                    ? publisher.send(message.getPayload())
+                    : publisher.send(message.getBody(), message.getContentEncoding());
+            if (!confirmed) {
                 throw new RabbitSendingException(
-                        "Message sending to RabbitMQ was failed - " +
-                                "RabbitMQ not send confirmation of message receiving");
+                        "Message sending to RabbitMQ was failed - " + NOT_CONFIRMED);
             }
         } catch (IOException | TimeoutException | InterruptedException exception) {
+            if (exception instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             logger.error("Message sending to RabbitMQ was failed - {}", exception.getMessage());
             throw new RabbitSendingException(exception.getMessage());
         }
@@ -0,0 +1,45 @@
+package com.example.Contractor.publisher;
+
+import com.example.Contractor.DTO.OutboxMessage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes outbox messages to event destination.
+ * <p>
+ * Implementation is chosen by {@code app.publisher.type} property:
+ * rabbit (default), memory or file.
+ */
+public interface EventPublisher {
+
+    /**
+     * Publishes plain message and returns confirmation of message receiving.
+     *
+     * @param message message must be sent
+     * @return confirmation of message receiving (true - message was received, otherwise - false)
+     */
+    default boolean send(String message) throws IOException, TimeoutException, InterruptedException {
+        return send(message.getBytes(StandardCharsets.UTF_8), null);
+    }
+
+    /**
+     * Publishes binary message and returns confirmation of message receiving.
+     *
+     * @param body message must be sent
+     * @param contentEncoding encoding of body (null - body is not encoded)
+     * @return confirmation of message receiving (true - message was received, otherwise - false)
+     */
+    boolean send(byte[] body, String contentEncoding) throws IOException, TimeoutException, InterruptedException;
+
+    /**
+     * Publishes passed messages and returns confirmation of each one.
+     *
+     * @param messages messages must be sent
+     * @return confirmations in order of passed messages
+     */
+    List<Boolean> sendAll(List<OutboxMessage> messages) throws IOException, TimeoutException, InterruptedException;
+
+}
@@ -0,0 +1,88 @@
+package com.example.Contractor.publisher;
+
+import com.example.Contractor.DTO.OutboxMessage;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Appends published messages to local file.
+ * <p>
+ * Each record is 4-byte length of content encoding (0 - not encoded), encoding in UTF-8,
+ * 4-byte length of body and body itself; all lengths are big-endian.
+ * Message is confirmed once file is forced to disk - one force per batch.
+ * Enabled by {@code app.publisher.type=file}; file is set by {@code app.publisher.file.path}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.publisher.type", havingValue = "file")
+public class FileEventPublisher implements EventPublisher {
+
+    private final Lock writeLock = new ReentrantLock();
+
+    private final FileChannel channel;
+
+    public FileEventPublisher(@Value("${app.publisher.file.path}") String path) throws IOException {
+        Path file = Path.of(path);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public boolean send(byte[] body, String contentEncoding) throws IOException {
+        writeLock.lock();
+        try {
+            write(body, contentEncoding);
+            channel.force(false);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Boolean> sendAll(List<OutboxMessage> messages) throws IOException {
+        writeLock.lock();
+        try {
+            for (OutboxMessage message : messages) {
+                write(message.getBody(), message.getContentEncoding());
+            }
+            channel.force(false);
+            return Collections.nCopies(messages.size(), true);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Closes file.
+     */
+    @PreDestroy
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void write(byte[] body, String contentEncoding) throws IOException {
+        byte[] encoding = contentEncoding == null ? new byte[0] : contentEncoding.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(2 * Integer.BYTES + encoding.length + body.length);
+        record.putInt(encoding.length).put(encoding).putInt(body.length).put(body).flip();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.example.Contractor.publisher;
+
+import com.example.Contractor.DTO.OutboxMessage;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps published messages in memory.
+ * <p>
+ * Lets the service run without broker and measures outbox throughput without network costs.
+ * Only the last {@code app.publisher.memory.capacity} messages are kept, so long run does not exhaust memory;
+ * older ones are dropped, but still counted by {@link #size()}.
+ * Enabled by {@code app.publisher.type=memory}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.publisher.type", havingValue = "memory")
+public class InMemoryEventPublisher implements EventPublisher {
+
+    private final Deque<PublishedEvent> published = new ArrayDeque<>();
+
+    private final int capacity;
+
+    private int count;
+
+    public InMemoryEventPublisher(@Value("${app.publisher.memory.capacity}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public boolean send(byte[] body, String contentEncoding) {
+        add(new PublishedEvent(null, body, contentEncoding, System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public List<Boolean> sendAll(List<OutboxMessage> messages) {
+        long now = System.nanoTime();
+        for (OutboxMessage message : messages) {
+            add(new PublishedEvent(message.getId(), message.getBody(), message.getContentEncoding(), now));
+        }
+        return Collections.nCopies(messages.size(), true);
+    }
+
+    /**
+     * Provides kept messages published since the last clearing.
+     *
+     * @return up to {@code app.publisher.memory.capacity} last published messages in order of publishing
+     */
+    public synchronized List<PublishedEvent> getPublished() {
+        return new ArrayList<>(published);
+    }
+
+    /**
+     * Provides amount of messages published since the last clearing, including dropped ones.
+     *
+     * @return amount of published messages
+     */
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Forgets published messages.
+     */
+    public synchronized void clear() {
+        published.clear();
+        count = 0;
+    }
+
+    private synchronized void add(PublishedEvent event) {
+        if (published.size() == capacity) {
+            published.removeFirst();
+        }
+        published.addLast(event);
+        count++;
+    }
+
+    /**
+     * Represents published message.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class PublishedEvent {
+
+        /**
+         * Contractor id; null if message was sent without outbox metadata.
+         */
+        private String id;
+
+        private byte[] body;
+
+        private String contentEncoding;
+
+        /**
+         * Value of {@link System#nanoTime()} at the moment of publishing.
+         */
+        private long publishedAt;
+
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.example.Contractor.rabbitMQ;
+
+import com.rabbitmq.client.ConfirmListener;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks publisher confirms of messages sent through one channel.
+ * <p>
+ * Limits amount of unconfirmed messages by window size;
+ * each ack or nack (single or multiple) completes matching futures and frees window slots.
+ */
+class ConfirmTracker implements ConfirmListener {
+
+    private final NavigableMap<Long, CompletableFuture<Boolean>> unconfirmed = new ConcurrentSkipListMap<>();
+
+    private final Semaphore window;
+
+    private final AtomicInteger nacks = new AtomicInteger();
+
+    ConfirmTracker(int windowSize) {
+        window = new Semaphore(windowSize);
+    }
+
+    /**
+     * Reserves window slot for next message.
+     *
+     * @param timeout max waiting time in milliseconds
+     * @return true - slot reserved, false - window stayed full during timeout
+     */
+    boolean reserve(long timeout) throws InterruptedException {
+        return window.tryAcquire(timeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts tracking of message with passed delivery tag.
+     *
+     * @param deliveryTag publish sequence number of message
+     * @return future completed with true on ack, false on nack
+     */
+    CompletableFuture<Boolean> track(long deliveryTag) {
+        CompletableFuture<Boolean> confirm = new CompletableFuture<>();
+        unconfirmed.put(deliveryTag, confirm);
+        return confirm;
+    }
+
+    /**
+     * Completes all tracked messages that were not confirmed yet.
+     *
+     * @param result value for not confirmed messages
+     * @return amount of completed messages
+     */
+    int completeAll(boolean result) {
+        return complete(unconfirmed, result);
+    }
+
+    /**
+     * Provides amount of nacked messages.
+     *
+     * @return amount of messages nacked by broker
+     */
+    int getNacks() {
+        return nacks.get();
+    }
+
+    @Override
+    public void handleAck(long deliveryTag, boolean multiple) {
+        confirm(deliveryTag, multiple, true);
+    }
+
+    @Override
+    public void handleNack(long deliveryTag, boolean multiple) {
+        confirm(deliveryTag, multiple, false);
+    }
+
+    private void confirm(long deliveryTag, boolean multiple, boolean result) {
+        int confirmed = 0;
+        if (multiple) {
+            confirmed = complete(unconfirmed.headMap(deliveryTag, true), result);
+        } else {
+            CompletableFuture<Boolean> confirm = unconfirmed.remove(deliveryTag);
+            if (confirm != null) {
+                confirm.complete(result);
+                window.release();
+                confirmed = 1;
+            }
+        }
+        if (!result) {
+            nacks.addAndGet(confirmed);
+        }
+    }
+
+    private int complete(NavigableMap<Long, CompletableFuture<Boolean>> confirms, boolean result) {
+        int completed = 0;
+        Map.Entry<Long, CompletableFuture<Boolean>> entry;
+        while ((entry = confirms.pollFirstEntry()) != null) {
+            entry.getValue().complete(result);
+            window.release();
+            completed++;
+        }
+        return completed;
+    }
+
+}
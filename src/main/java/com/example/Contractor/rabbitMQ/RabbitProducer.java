@@ -1,26 +1,87 @@
 package com.example.Contractor.rabbitMQ;
 
+import com.example.Contractor.DTO.OutboxMessage;
+import com.example.Contractor.publisher.EventPublisher;
 import com.rabbitmq.client.AMQP;
 import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.Connection;
 import com.rabbitmq.client.ConnectionFactory;
+import com.rabbitmq.client.Recoverable;
+import com.rabbitmq.client.RecoveryListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Releases message sending to RabbitMQ queue.
+ * <p>
+ * Keeps one long-lived connection and bounded pool of confirm-mode channels.
+ * Exchange and binding are declared once, when connection is opened;
+ * after network failure connection, channels and topology are recovered automatically.
+ * Publish and confirm latencies of {@link #send(byte[], String)} and {@link #sendAll(List)} are told apart by mode tag.
+ * Default {@link EventPublisher} ({@code app.publisher.type=rabbit}).
  */
 @Component
-public class RabbitProducer {
+@ConditionalOnProperty(name = "app.publisher.type", havingValue = "rabbit", matchIfMissing = true)
+public class RabbitProducer implements EventPublisher {
+
+    private static final String PUBLISH_LATENCY_DESCRIPTION = "Time of message (or batch of messages) publishing";
+
+    private static final String CONFIRM_LATENCY_DESCRIPTION = "Time of waiting for publisher confirms after publishing";
+
+    private final Logger logger = LogManager.getLogger();
 
     private final ConnectionFactory factory = new ConnectionFactory();
 
     private final long timeout = 1000;
 
+    private final Lock connectionLock = new ReentrantLock();
+
+    private final BlockingQueue<Channel> idleChannels;
+
+    private final Semaphore channelPermits;
+
+    private final AtomicInteger openChannels = new AtomicInteger();
+
+    private final Counter recoveries;
+
+    private final MeterRegistry registry;
+
+    private final Timer publishLatency;
+
+    private final Timer confirmLatency;
+
+    private final Timer batchPublishLatency;
+
+    private final Timer batchConfirmLatency;
+
+    private final int confirmWindow;
+
+    private volatile Connection connection;
+
     @Value("${app.rabbit.exchange}")
     private String exchange;
 
@@ -28,9 +89,37 @@ public class RabbitProducer {
     private String queue;
 
     public RabbitProducer(@Value("${app.rabbit.host}") String host,
-                          @Value("${app.rabbit.port}") int port) {
+                          @Value("${app.rabbit.port}") int port,
+                          @Value("${app.rabbit.channelPoolSize}") int channelPoolSize,
+                          @Value("${app.rabbit.confirmWindow}") int confirmWindow,
+                          MeterRegistry registry) {
+        this.confirmWindow = confirmWindow;
+        this.registry = registry;
         factory.setHost(host);
         factory.setPort(port);
+        factory.setAutomaticRecoveryEnabled(true);
+        factory.setTopologyRecoveryEnabled(true);
+        idleChannels = new ArrayBlockingQueue<>(channelPoolSize);
+        channelPermits = new Semaphore(channelPoolSize, true);
+        Gauge.builder("rabbit.producer.channels.open", openChannels, AtomicInteger::get)
+                .description("Channels opened by producer")
+                .register(registry);
+        Gauge.builder("rabbit.producer.channels.idle", idleChannels, BlockingQueue::size)
+                .description("Channels waiting in pool")
+                .register(registry);
+        Gauge.builder("rabbit.producer.channels.awaiting", channelPermits, Semaphore::getQueueLength)
+                .description("Threads waiting for free channel")
+                .register(registry);
+        Gauge.builder("rabbit.producer.channels.max", () -> channelPoolSize)
+                .description("Channel pool capacity")
+                .register(registry);
+        recoveries = Counter.builder("rabbit.producer.connection.recoveries")
+                .description("Automatic connection recoveries")
+                .register(registry);
+        publishLatency = latencyTimer("rabbit.producer.publish.latency", PUBLISH_LATENCY_DESCRIPTION, "single");
+        confirmLatency = latencyTimer("rabbit.producer.confirm.latency", CONFIRM_LATENCY_DESCRIPTION, "single");
+        batchPublishLatency = latencyTimer("rabbit.producer.publish.latency", PUBLISH_LATENCY_DESCRIPTION, "batch");
+        batchConfirmLatency = latencyTimer("rabbit.producer.confirm.latency", CONFIRM_LATENCY_DESCRIPTION, "batch");
     }
 
     /**
@@ -39,25 +128,269 @@ public class RabbitProducer {
      * @param message message must be sent.
      * @return confirmation of message receiving (true - message was received, otherwise - false)
      */
+    @Override
     public boolean send(String message) throws IOException, TimeoutException, InterruptedException {
-        try (Connection connection = factory.newConnection();
-             Channel channel = connection.createChannel()) {
-            configProducer(channel);
-            AMQP.BasicProperties props = new AMQP.BasicProperties().builder().timestamp(new Date()).build();
-            channel.basicPublish(exchange, queue, props, message.getBytes());
-            return channel.waitForConfirms(timeout);
+        return send(message.getBytes(StandardCharsets.UTF_8), null);
+    }
+
+    /**
+     * Sends binary message to RabbitMQ and return confirmation of message receiving.
+     *
+     * @param body message must be sent
+     * @param contentEncoding value of content-encoding header (null - body is not encoded)
+     * @return confirmation of message receiving (true - message was received, otherwise - false)
+     */
+    @Override
+    public boolean send(byte[] body, String contentEncoding) throws IOException, TimeoutException, InterruptedException {
+        Channel channel = borrowChannel();
+        boolean reusable = false;
+        try {
+            long start = System.nanoTime();
+            channel.basicPublish(exchange, queue, properties(contentEncoding), body);
+            long published = System.nanoTime();
+            publishLatency.record(published - start, TimeUnit.NANOSECONDS);
+            boolean confirmed = channel.waitForConfirms(timeout);
+            confirmLatency.record(System.nanoTime() - published, TimeUnit.NANOSECONDS);
+            if (!confirmed) {
+                recordFailures("nack", 1);
+            }
+            reusable = true;
+            return confirmed;
+        } catch (TimeoutException exception) {
+            recordFailures("timeout", 1);
+            throw exception;
+        } catch (IOException exception) {
+            recordFailures("io", 1);
+            throw exception;
+        } finally {
+            releaseChannel(channel, reusable);
         }
     }
 
     /**
-     * Sets some configurations of producer.
+     * Sends messages to RabbitMQ without waiting for confirmation of each one.
+     * <p>
+     * Up to {@code app.rabbit.confirmWindow} messages are kept unconfirmed at the same time;
+     * confirms are tracked by delivery tags.
+     * Messages that were nacked, not confirmed in time or not published at all are reported as not received.
+     *
+     * @param messages messages must be sent
+     * @return confirmations in order of passed messages (true - message was received, otherwise - false)
+     */
+    @Override
+    public List<Boolean> sendAll(List<OutboxMessage> messages) throws IOException, TimeoutException, InterruptedException {
+        Channel channel = borrowChannel();
+        ConfirmTracker tracker = new ConfirmTracker(confirmWindow);
+        channel.addConfirmListener(tracker);
+        List<CompletableFuture<Boolean>> confirms = new ArrayList<>(messages.size());
+        boolean reusable = false;
+        boolean failed = false;
+        try {
+            long start = System.nanoTime();
+            for (OutboxMessage message : messages) {
+                if (!tracker.reserve(timeout)) {
+                    break;
+                }
+                confirms.add(tracker.track(channel.getNextPublishSeqNo()));
+                channel.basicPublish(exchange, queue, properties(message.getContentEncoding()), message.getBody());
+            }
+            long published = System.nanoTime();
+            batchPublishLatency.record(published - start, TimeUnit.NANOSECONDS);
+            reusable = awaitConfirms(confirms) && confirms.size() == messages.size();
+            batchConfirmLatency.record(System.nanoTime() - published, TimeUnit.NANOSECONDS);
+        } catch (IOException exception) {
+            recordFailures("io", messages.size());
+            failed = true;
+            throw exception;
+        } finally {
+            int unconfirmed = tracker.completeAll(false);
+            channel.removeConfirmListener(tracker);
+            releaseChannel(channel, reusable);
+            if (!failed) {
+                recordFailures("nack", tracker.getNacks());
+                recordFailures("timeout", unconfirmed + messages.size() - confirms.size());
+            }
+        }
+        List<Boolean> results = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            results.add(i < confirms.size() && confirms.get(i).join());
+        }
+        return results;
+    }
+
+    /**
+     * Closes connection with all pooled channels.
+     */
+    @PreDestroy
+    public void close() {
+        Connection current = connection;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException exception) {
+                logger.warn("RabbitMQ connection was not closed - {}", exception.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Creates message properties.
+     *
+     * @param contentEncoding value of content-encoding header (can be null)
+     * @return message properties
+     */
+    private AMQP.BasicProperties properties(String contentEncoding) {
+        return new AMQP.BasicProperties().builder()
+                .timestamp(new Date())
+                .contentEncoding(contentEncoding)
+                .build();
+    }
+
+    /**
+     * Registers latency timer of single message ({@code mode=single}) or batch ({@code mode=batch}) sending.
+     *
+     * @param name meter name
+     * @param description meter description
+     * @param mode value of mode tag
+     * @return registered timer
+     */
+    private Timer latencyTimer(String name, String description, String mode) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("mode", mode)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Counts messages that were not received by RabbitMQ.
+     *
+     * @param cause reason of failure (nack, timeout or io)
+     * @param amount amount of failed messages
+     */
+    private void recordFailures(String cause, int amount) {
+        if (amount > 0) {
+            registry.counter("rabbit.producer.failures", "cause", cause).increment(amount);
+        }
+    }
+
+    /**
+     * Waits for confirmation of all published messages.
+     *
+     * @param confirms futures of published messages
+     * @return true - all messages were acked or nacked, false - some of them were not confirmed in time
+     */
+    private boolean awaitConfirms(List<CompletableFuture<Boolean>> confirms) throws InterruptedException {
+        try {
+            CompletableFuture.allOf(confirms.toArray(new CompletableFuture[0])).get(timeout, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException exception) {
+            logger.warn("RabbitMQ did not confirm {} messages in time",
+                    confirms.stream().filter(confirm -> !confirm.isDone()).count());
+            return false;
+        } catch (ExecutionException exception) {
+            return false;
+        }
+    }
+
+    /**
+     * Takes channel from pool; opens new one if pool has no idle channels.
+     * Throw TimeoutException if all channels are busy longer than timeout.
+     *
+     * @return channel in confirm mode
+     */
+    private Channel borrowChannel() throws IOException, TimeoutException, InterruptedException {
+        if (!channelPermits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+            throw new TimeoutException("There is no free RabbitMQ channel in pool");
+        }
+        try {
+            Channel channel = idleChannels.poll();
+            while (channel != null && !channel.isOpen()) {
+                openChannels.decrementAndGet();
+                channel = idleChannels.poll();
+            }
+            return channel != null ? channel : openChannel();
+        } catch (IOException | TimeoutException | RuntimeException exception) {
+            channelPermits.release();
+            throw exception;
+        }
+    }
+
+    /**
+     * Returns channel to pool.
+     * Channel is closed instead if its state is unknown (e.g. confirmation was not received).
      *
      * @param channel
+     * @param reusable true - channel can be used by next message, false - it must be closed
+     */
+    private void releaseChannel(Channel channel, boolean reusable) {
+        try {
+            if (reusable && channel.isOpen() && idleChannels.offer(channel)) {
+                return;
+            }
+            openChannels.decrementAndGet();
+            if (channel.isOpen()) {
+                channel.close();
+            }
+        } catch (IOException | TimeoutException exception) {
+            logger.warn("RabbitMQ channel was not closed - {}", exception.getMessage());
+        } finally {
+            channelPermits.release();
+        }
+    }
+
+    /**
+     * Opens new channel and turns on publisher confirms.
+     *
+     * @return opened channel
      */
-    private void configProducer(Channel channel) throws IOException {
+    private Channel openChannel() throws IOException, TimeoutException {
+        Channel channel = getConnection().createChannel();
         channel.confirmSelect();
-        exchangeDeclare(channel);
-        queueBind(channel);
+        openChannels.incrementAndGet();
+        return channel;
+    }
+
+    /**
+     * Provides long-lived connection; opens it and declares topology on first call.
+     *
+     * @return connection to RabbitMQ
+     */
+    private Connection getConnection() throws IOException, TimeoutException {
+        Connection current = connection;
+        if (current != null) {
+            return current;
+        }
+        connectionLock.lock();
+        try {
+            if (connection == null) {
+                Connection created = factory.newConnection("contractor-producer");
+                try {
+                    declareTopology(created);
+                } catch (IOException | TimeoutException exception) {
+                    created.abort();
+                    throw exception;
+                }
+                ((Recoverable) created).addRecoveryListener(recoveryListener());
+                connection = created;
+            }
+            return connection;
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    /**
+     * Declares exchange and binds queue with it.
+     * Declarations are recorded by connection and repeated automatically after recovery.
+     *
+     * @param connection
+     */
+    private void declareTopology(Connection connection) throws IOException, TimeoutException {
+        try (Channel channel = connection.createChannel()) {
+            exchangeDeclare(channel);
+            queueBind(channel);
+        }
     }
 
     /**
@@ -78,4 +411,26 @@ public class RabbitProducer {
         channel.queueBind(queue, exchange, queue);
     }
 
+    /**
+     * Logs connection recovery and counts it.
+     *
+     * @return listener for recoverable connection
+     */
+    private RecoveryListener recoveryListener() {
+        return new RecoveryListener() {
+
+            @Override
+            public void handleRecovery(Recoverable recoverable) {
+                recoveries.increment();
+                logger.info("RabbitMQ connection was recovered");
+            }
+
+            @Override
+            public void handleRecoveryStarted(Recoverable recoverable) {
+                logger.warn("RabbitMQ connection was lost - recovery started");
+            }
+
+        };
+    }
+
 }
@@ -0,0 +1,21 @@
+package com.example.Contractor.search;
+
+import com.example.Contractor.DTO.Contractor;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by {@code ContractorService} when Contractor entity is saved or deleted.
+ */
+@Getter
+@AllArgsConstructor
+public class ContractorChangedEvent {
+
+    private String id;
+
+    /**
+     * Saved state of Contractor; null if it was deleted.
+     */
+    private Contractor contractor;
+
+}
@@ -0,0 +1,430 @@
+package com.example.Contractor.search;
+
+import com.example.Contractor.DTO.Contractor;
+import com.example.Contractor.DTO.ContractorSearch;
+import com.example.Contractor.Repository.ContractorRepository;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index of active contractors having country, industry and org form, as database search matches.
+ * <p>
+ * Every contractor gets document id; posting list of each trigram of its name, full name, INN and OGRN
+ * holds ids of documents containing it. Free-text query intersects posting lists of its trigrams
+ * and verifies candidates, so it touches only matching documents.
+ * <p>
+ * Index is loaded on startup and updated after every committed save or delete of this instance.
+ * Changes of other instances are received from {@code ContractorCachedService.EVICT_CHANNEL} Redis channel
+ * and reread from database; whole index is also reloaded every {@code app.contractor.search.index.reloadInterval}
+ * milliseconds, so changes whose messages were lost are picked up too. Old index serves queries while new one is loading.
+ * Queries without free-text term of at least three characters, with country or org form filters,
+ * with LIKE wildcards, and all queries before the first loading finishes are not served - {@code ContractorService} falls back to database then.
+ * Results are ordered by name and id in code point order, as database orders search results ({@code COLLATE "C"}).
+ * Enabled by {@code app.contractor.search.index.enabled} property.
+ */
+@Component
+@ConditionalOnProperty(name = "app.contractor.search.index.enabled", havingValue = "true")
+public class ContractorSearchIndex implements MessageListener {
+
+    /**
+     * Separates fields in search text, so query can not match across two fields.
+     */
+    private static final char FIELD_SEPARATOR = '\u0001';
+
+    private static final int GRAM = 3;
+
+    /**
+     * Order of search results - the same as {@code ORDER BY name COLLATE "C", id COLLATE "C"}.
+     */
+    static final Comparator<Contractor> ORDER = Comparator
+            .comparing(Contractor::getName, ContractorSearchIndex::compareCodePoints)
+            .thenComparing(Contractor::getId, ContractorSearchIndex::compareCodePoints);
+
+    private final Logger logger = LogManager.getLogger();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    /**
+     * Rereads contractors changed by other instances one by one,
+     * so the later state of contractor is always applied after the earlier one.
+     */
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("contractor-search-index-refresh").daemon().factory());
+
+    /**
+     * Changes received while index is loading, by contractor id; applied to loaded index when loading is finished.
+     * Loader must not overwrite them with older state.
+     */
+    private final Map<String, Contractor> changedWhileLoading = new LinkedHashMap<>();
+
+    private boolean loading;
+
+    private volatile Documents current;
+
+    @Autowired
+    private ContractorRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Starts loading of index in background once application is started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread.ofVirtual().name("contractor-search-index").start(this::load);
+    }
+
+    /**
+     * Reloads index, so changes whose messages were lost are picked up.
+     */
+    @Scheduled(initialDelayString = "${app.contractor.search.index.reloadInterval}",
+            fixedDelayString = "${app.contractor.search.index.reloadInterval}")
+    public void reload() {
+        load();
+    }
+
+    /**
+     * Stops rereading of changed contractors.
+     */
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Loads all active contractors through database cursor and replaces served index by loaded one.
+     * Queries are served by previous index until loading is finished.
+     */
+    void load() {
+        loadLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            lock.writeLock().lock();
+            try {
+                loading = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            Documents loaded = new Documents();
+            try {
+                TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+                transactionTemplate.setReadOnly(true);
+                transactionTemplate.executeWithoutResult(status -> repository.export(new ContractorSearch(), contractor -> {
+                    lock.readLock().lock();
+                    try {
+                        if (!changedWhileLoading.containsKey(contractor.getId())) {
+                            loaded.add(contractor);
+                        }
+                    } finally {
+                        lock.readLock().unlock();
+                    }
+                }));
+            } catch (RuntimeException exception) {
+                lock.writeLock().lock();
+                try {
+                    loading = false;
+                    changedWhileLoading.clear();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                logger.error("Contractor search index loading was failed - {}", exception.getMessage());
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                changedWhileLoading.forEach(loaded::apply);
+                changedWhileLoading.clear();
+                loading = false;
+                current = loaded;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Contractor search index loaded - {} contractors, {} trigrams, {} ms",
+                    loaded.documentIds.size(), loaded.postings.size(), System.currentTimeMillis() - start);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Applies committed change of contractor to index.
+     * Deletion is not transactional, so changes published outside of transaction are applied at once.
+     *
+     * @param event saved or deleted contractor
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ContractorChangedEvent event) {
+        apply(event.getId(), event.getContractor());
+    }
+
+    /**
+     * Rereads contractor changed by some instance (its id is received from eviction channel) in background.
+     *
+     * @param message message holding changed id
+     * @param pattern channel pattern
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String contractorId = new String(message.getBody(), StandardCharsets.UTF_8);
+        refresher.execute(() -> {
+            try {
+                apply(contractorId, repository.getContractor(contractorId).orElse(null));
+            } catch (RuntimeException exception) {
+                logger.warn("Contractor {} was not refreshed in search index - {}", contractorId, exception.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Checks if index can answer passed query exactly as database does and faster than it.
+     * Queries without free-text term of at least three characters have no trigrams to look up,
+     * so they are left to database.
+     *
+     * @param search contains filtering fields
+     * @return true if index is loaded and supports all passed fields
+     */
+    public boolean canServe(ContractorSearch search) {
+        return isReady()
+                && search.getContractorSearch().filter(term -> term.length() >= GRAM).isPresent()
+                && search.getCountry().isEmpty()
+                && search.getOrgForm().isEmpty()
+                && search.getContractorId().filter(this::hasWildcard).isEmpty()
+                && search.getParentId().filter(this::hasWildcard).isEmpty()
+                && search.getContractorSearch().filter(this::hasWildcard).isEmpty();
+    }
+
+    /**
+     * Finds active contractors matching passed query.
+     *
+     * @param search contains filtering fields; must be supported by {@link #canServe(ContractorSearch)}
+     * @param page number of result page that will be returned
+     * @param size amount of returned entities
+     * @return matched {@code Contractor} instances ordered by name and id
+     */
+    public List<Contractor> search(ContractorSearch search, int page, int size) {
+        int limit = (int) Math.min(Integer.MAX_VALUE, ((long) page + 1) * size);
+        if (limit == 0) {
+            return List.of();
+        }
+        String term = search.getContractorSearch().orElseThrow().toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            Documents documents = current;
+            PriorityQueue<Contractor> top = new PriorityQueue<>(ORDER.reversed());
+            for (int id : documents.candidates(term)) {
+                Contractor contractor = documents.matching(id, search, term);
+                if (contractor == null) {
+                    continue;
+                }
+                if (top.size() < limit) {
+                    top.add(contractor);
+                } else if (ORDER.compare(contractor, top.peek()) < 0) {
+                    top.poll();
+                    top.add(contractor);
+                }
+            }
+            List<Contractor> result = new ArrayList<>(top);
+            result.sort(ORDER);
+            int from = Math.min(result.size(), (int) Math.min(Integer.MAX_VALUE, (long) page * size));
+            return List.copyOf(result.subList(from, result.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tells if index is loaded and serves queries.
+     *
+     * @return true if loaded
+     */
+    public boolean isReady() {
+        return current != null;
+    }
+
+    /**
+     * Compares strings by Unicode code points, as PostgreSQL compares UTF-8 text in "C" collation.
+     */
+    static int compareCodePoints(String first, String second) {
+        int i = 0;
+        int j = 0;
+        while (i < first.length() && j < second.length()) {
+            int a = first.codePointAt(i);
+            int b = second.codePointAt(j);
+            if (a != b) {
+                return Integer.compare(a, b);
+            }
+            i += Character.charCount(a);
+            j += Character.charCount(b);
+        }
+        return Integer.compare(first.length() - i, second.length() - j);
+    }
+
+    private void apply(String contractorId, Contractor contractor) {
+        lock.writeLock().lock();
+        try {
+            if (loading) {
+                changedWhileLoading.put(contractorId, contractor);
+            }
+            if (current != null) {
+                current.apply(contractorId, contractor);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean hasWildcard(String value) {
+        return value.indexOf('%') >= 0 || value.indexOf('_') >= 0;
+    }
+
+    /**
+     * Documents and posting lists of one loaded index; guarded by lock of enclosing index once it is served.
+     */
+    private static final class Documents {
+
+        private final Map<Long, IntList> postings = new HashMap<>();
+
+        private final List<Contractor> documents = new ArrayList<>();
+
+        private final List<String> texts = new ArrayList<>();
+
+        private final BitSet live = new BitSet();
+
+        private final Map<String, Integer> documentIds = new HashMap<>();
+
+        /**
+         * Replaces indexed state of contractor.
+         *
+         * @param contractorId id of changed contractor
+         * @param contractor saved state; null if contractor was deleted
+         */
+        private void apply(String contractorId, Contractor contractor) {
+            remove(contractorId);
+            if (contractor != null && contractor.isActive()
+                    && contractor.getCountry() != null && contractor.getIndustry() != 0 && contractor.getOrgForm() != 0) {
+                add(contractor);
+            }
+            if (documents.size() > 1024 && documentIds.size() < documents.size() / 2) {
+                compact();
+            }
+        }
+
+        private Contractor matching(int id, ContractorSearch search, String term) {
+            if (!live.get(id)) {
+                return null;
+            }
+            Contractor contractor = documents.get(id);
+            boolean matches = search.getContractorId().map(value -> value.equalsIgnoreCase(contractor.getId())).orElse(true)
+                    && search.getParentId().map(value -> value.equalsIgnoreCase(contractor.getParentId())).orElse(true)
+                    && search.getIndustry().map(industry -> industry.equals(String.valueOf(contractor.getIndustry()))).orElse(true)
+                    && texts.get(id).contains(term);
+            return matches ? contractor : null;
+        }
+
+        private int[] candidates(String term) {
+            long[] grams = grams(term);
+            IntList[] lists = new IntList[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                lists[i] = postings.get(grams[i]);
+                if (lists[i] == null) {
+                    return new int[0];
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(IntList::size));
+            return IntList.intersect(lists);
+        }
+
+        private void add(Contractor contractor) {
+            remove(contractor.getId());
+            int id = documents.size();
+            String text = searchText(contractor);
+            documents.add(contractor);
+            texts.add(text);
+            live.set(id);
+            documentIds.put(contractor.getId(), id);
+            for (long gram : grams(text)) {
+                postings.computeIfAbsent(gram, key -> new IntList()).addDistinct(id);
+            }
+        }
+
+        private void remove(String contractorId) {
+            Integer id = documentIds.remove(contractorId);
+            if (id != null) {
+                live.clear(id);
+                documents.set(id, null);
+                texts.set(id, null);
+            }
+        }
+
+        /**
+         * Rebuilds posting lists without removed documents.
+         */
+        private void compact() {
+            List<Contractor> active = new ArrayList<>(documentIds.size());
+            for (int id = live.nextSetBit(0); id >= 0; id = live.nextSetBit(id + 1)) {
+                active.add(documents.get(id));
+            }
+            postings.clear();
+            documents.clear();
+            texts.clear();
+            live.clear();
+            documentIds.clear();
+            active.forEach(this::add);
+        }
+
+        private static String searchText(Contractor contractor) {
+            return String.join(String.valueOf(FIELD_SEPARATOR),
+                            nullToEmpty(contractor.getName()), nullToEmpty(contractor.getNameFull()),
+                            nullToEmpty(contractor.getInn()), nullToEmpty(contractor.getOgrn()))
+                    .toLowerCase(Locale.ROOT);
+        }
+
+        private static String nullToEmpty(String value) {
+            return value == null ? "" : value;
+        }
+
+        private static long[] grams(String text) {
+            if (text.length() < GRAM) {
+                return new long[0];
+            }
+            long[] grams = new long[text.length() - GRAM + 1];
+            for (int i = 0; i < grams.length; i++) {
+                grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+            }
+            return grams;
+        }
+
+    }
+
+}
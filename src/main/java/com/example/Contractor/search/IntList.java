@@ -0,0 +1,82 @@
+package com.example.Contractor.search;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints used as posting list of n-gram index.
+ * <p>
+ * Document ids are appended in ascending order, so list stays sorted without extra work.
+ */
+final class IntList {
+
+    private int[] values = new int[4];
+
+    private int size;
+
+    /**
+     * Appends value if it differs from the last one.
+     *
+     * @param value document id not less than the last appended one
+     */
+    void addDistinct(int value) {
+        if (size > 0 && values[size - 1] == value) {
+            return;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return values[index];
+    }
+
+    /**
+     * Intersects sorted lists.
+     *
+     * @param lists lists ordered by size ascending
+     * @return sorted ids contained in every list
+     */
+    static int[] intersect(IntList[] lists) {
+        IntList first = lists[0];
+        int[] result = Arrays.copyOf(first.values, first.size);
+        int length = first.size;
+        for (int l = 1; l < lists.length && length > 0; l++) {
+            IntList list = lists[l];
+            int matched = 0;
+            int position = 0;
+            for (int i = 0; i < length; i++) {
+                position = list.search(result[i], position);
+                if (position < list.size && list.values[position] == result[i]) {
+                    result[matched++] = result[i];
+                }
+            }
+            length = matched;
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    /**
+     * Finds position of the first value not less than passed one, starting from {@code from}.
+     * Gallops forward first, so intersection of short list with long one costs logarithmic time per id.
+     */
+    private int search(int value, int from) {
+        int bound = 1;
+        while (from + bound < size && values[from + bound] < value) {
+            bound *= 2;
+        }
+        int low = from + bound / 2;
+        int high = Math.min(from + bound, size - 1);
+        if (low >= size) {
+            return size;
+        }
+        int found = Arrays.binarySearch(values, low, high + 1, value);
+        return found >= 0 ? found : -found - 1;
+    }
+
+}
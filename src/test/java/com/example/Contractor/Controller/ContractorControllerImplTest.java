@@ -2,6 +2,9 @@ package com.example.Contractor.Controller;
 
 import com.example.Contractor.DTO.Contractor;
 import com.example.Contractor.DTO.ContractorSearch;
+import com.example.Contractor.DTO.ContractorSearchCursor;
+import com.example.Contractor.DTO.SearchCount;
+import com.example.Contractor.DTO.SearchMode;
 import com.example.Contractor.Service.ContractorService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -106,4 +109,54 @@ public class ContractorControllerImplTest {
         Assertions.assertThrows(RuntimeException.class, () -> controller.search(new ContractorSearch(), 0, 0));
     }
 
+    @Test
+    public void testSearchNextCursor() {
+        Contractor contractor = new Contractor();
+        contractor.setId("1");
+        contractor.setName("name");
+        Mockito.when(service.searchAfter(any(ContractorSearch.class), any(ContractorSearchCursor.class), eq(1)))
+                .thenReturn(List.of(contractor));
+        Mockito.when(service.hasMore(any(ContractorSearch.class), eq(SearchMode.CONTAINS), eq(0), eq(1), eq(contractor)))
+                .thenReturn(true);
+        String cursor = new ContractorSearchCursor("a", "0").encode();
+        ResponseEntity<?> response = controller.search(new ContractorSearch(), 0, 1, cursor, SearchMode.CONTAINS, false);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        ContractorSearchCursor next = ContractorSearchCursor.decode(
+                response.getHeaders().getFirst(ContractorControllerImpl.NEXT_CURSOR_HEADER));
+        Assertions.assertEquals("name", next.getName());
+        Assertions.assertEquals("1", next.getId());
+    }
+
+    @Test
+    public void testSearchMalformedCursor() {
+        ResponseEntity<?> response = controller.search(new ContractorSearch(), 0, 1, "%%%", SearchMode.CONTAINS, false);
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    public void testSearchFailureIsNotMalformedCursor() {
+        Mockito.when(service.search(any(ContractorSearch.class), eq(0), eq(1))).thenThrow(new IllegalArgumentException("failure"));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> controller.search(new ContractorSearch(), 0, 1, null, SearchMode.CONTAINS, true));
+    }
+
+    @Test
+    public void testSearchFullText() {
+        List<Contractor> list = List.of(new Contractor());
+        Mockito.when(service.searchRanked(any(ContractorSearch.class), eq(0), eq(1))).thenReturn(list);
+        ResponseEntity<?> response = controller.search(new ContractorSearch(), 0, 1, null, SearchMode.FULL_TEXT, false);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertFalse(response.getHeaders().containsKey(ContractorControllerImpl.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    public void testSearchCount() {
+        Mockito.when(service.search(any(ContractorSearch.class), eq(0), eq(10))).thenReturn(List.of(new Contractor()));
+        Mockito.when(service.count(any(ContractorSearch.class), eq(SearchMode.CONTAINS))).thenReturn(new SearchCount(1, true));
+        ResponseEntity<?> response = controller.search(new ContractorSearch(), 0, 10, null, SearchMode.CONTAINS, true);
+        Assertions.assertEquals("false", response.getHeaders().getFirst(ContractorControllerImpl.HAS_MORE_HEADER));
+        Assertions.assertEquals("1", response.getHeaders().getFirst(ContractorControllerImpl.TOTAL_COUNT_HEADER));
+        Assertions.assertEquals("true", response.getHeaders().getFirst(ContractorControllerImpl.TOTAL_COUNT_EXACT_HEADER));
+    }
+
 }
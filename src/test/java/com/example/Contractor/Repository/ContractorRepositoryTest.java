@@ -2,9 +2,8 @@ package com.example.Contractor.Repository;
 
 import com.example.Contractor.DTO.Contractor;
 import com.example.Contractor.DTO.ContractorSearch;
-import com.example.Contractor.DTO.Country;
-import com.example.Contractor.DTO.Industry;
-import com.example.Contractor.DTO.OrgForm;
+import com.example.Contractor.DTO.ContractorSearchCursor;
+import com.example.Contractor.DTO.SearchMode;
 import com.example.Contractor.AbstractContainer;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
@@ -12,8 +11,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @SpringBootTest
 public class ContractorRepositoryTest extends AbstractContainer {
@@ -70,17 +73,13 @@ public class ContractorRepositoryTest extends AbstractContainer {
     }
 
     @Test
-    public void testGet() {
-        List<Object> list = repository.get("0").get();
-        Contractor contractor = (Contractor) list.get(0);
-        Country country = (Country) list.get(1);
-        Industry industry = (Industry) list.get(2);
-        OrgForm orgForm  = (OrgForm) list.get(3);
+    public void testGetContractor() {
+        Contractor contractor = repository.getContractor("0").get();
         Assertions.assertEquals("baseName", contractor.getName());
-        Assertions.assertEquals("Абхазия", country.getName());
-        Assertions.assertEquals("Авиастроение", industry.getName());
-        Assertions.assertEquals("-", orgForm.getName());
-        Assertions.assertTrue(repository.get("invalid").isEmpty());
+        Assertions.assertEquals("ABH", contractor.getCountry());
+        Assertions.assertEquals(1, contractor.getIndustry());
+        Assertions.assertEquals(1, contractor.getOrgForm());
+        Assertions.assertTrue(repository.getContractor("invalid").isEmpty());
     }
 
     @Test
@@ -117,4 +116,85 @@ public class ContractorRepositoryTest extends AbstractContainer {
         Assertions.assertTrue(list.isEmpty());
     }
 
+    @Test
+    public void testSearchAfter(@Autowired JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("""
+        INSERT INTO contractor (id, name, country, industry, org_form)
+        VALUES ('k2', 'keyset', 'ABH', 1, 1), ('k1', 'keyset', 'ABH', 1, 1), ('k3', 'keyset2', 'ABH', 1, 1)
+        """);
+        try {
+            ContractorSearch search = new ContractorSearch(null, null, "keyset", null, null, null);
+            List<Contractor> first = repository.searchAfter(search, new ContractorSearchCursor("", ""), 2);
+            Assertions.assertEquals(List.of("k1", "k2"), first.stream().map(Contractor::getId).toList());
+            List<Contractor> second = repository.searchAfter(search, ContractorSearchCursor.after(first.getLast()), 2);
+            Assertions.assertEquals(List.of("k3"), second.stream().map(Contractor::getId).toList());
+            Assertions.assertTrue(repository.existsAfter(search, ContractorSearchCursor.after(first.getLast())));
+            Assertions.assertFalse(repository.existsAfter(search, ContractorSearchCursor.after(second.getLast())));
+            Assertions.assertEquals(3, repository.countUpTo(search, SearchMode.CONTAINS, 10));
+            Assertions.assertEquals(2, repository.countUpTo(search, SearchMode.CONTAINS, 2));
+            Assertions.assertTrue(repository.estimateCount(search, SearchMode.CONTAINS) > 0);
+        } finally {
+            jdbcTemplate.update("DELETE FROM contractor WHERE id IN ('k1', 'k2', 'k3')");
+        }
+    }
+
+    @Test
+    public void testSearchRanked(@Autowired JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("""
+        INSERT INTO contractor (id, name, name_full, country, industry, org_form)
+        VALUES ('r1', 'Северный завод', 'Завод металлоконструкций', 'ABH', 1, 1),
+        ('r2', 'Металлоконструкции', 'Завод металлоконструкций', 'ABH', 1, 1)
+        """);
+        try {
+            List<Contractor> list = repository.searchRanked(new ContractorSearch(
+                    null, null, "металлоконструкции", null, null, null), 0, 10);
+            Assertions.assertEquals(List.of("r2", "r1"), list.stream().map(Contractor::getId).toList());
+        } finally {
+            jdbcTemplate.update("DELETE FROM contractor WHERE id IN ('r1', 'r2')");
+        }
+    }
+
+    @Test
+    public void testSearchSkipsContractorsWithoutReferences(@Autowired JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("""
+        INSERT INTO contractor (id, name, country, industry, org_form)
+        VALUES ('nr1', 'noReference', NULL, 1, 1),
+        ('nr2', 'noReference', 'ABH', NULL, 1),
+        ('nr3', 'noReference', 'ABH', 1, NULL)
+        """);
+        try {
+            ContractorSearch search = new ContractorSearch(null, null, "noReference", null, null, null);
+            Assertions.assertTrue(repository.search(search, 0, 10).isEmpty());
+            Assertions.assertTrue(repository.search(new ContractorSearch(), 0, 100).stream()
+                    .noneMatch(contractor -> contractor.getId().startsWith("nr")));
+        } finally {
+            jdbcTemplate.update("DELETE FROM contractor WHERE id IN ('nr1', 'nr2', 'nr3')");
+        }
+    }
+
+    @Test
+    public void testSearchUsesTrigramIndexes(@Autowired NamedParameterJdbcTemplate jdbcTemplate,
+                                             @Autowired TransactionTemplate transactionTemplate) {
+        Map<String, Object> params = new HashMap<>();
+        String condition = repository.searchCondition(new ContractorSearch(
+                null, null, "base", null, null, null), params);
+        List<String> plan = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            jdbcTemplate.update("""
+                    INSERT INTO contractor (id, name, name_full, inn, ogrn, country, industry, org_form)
+                    SELECT 'plan' || g, 'Контрагент ' || md5(g::text), 'ООО Контрагент ' || md5(g::text),
+                    lpad(g::text, 10, '0'), lpad(g::text, 13, '0'), 'ABH', 1, 1
+                    FROM generate_series(1, 50000) g;
+                    """, new HashMap<>());
+            jdbcTemplate.update("ANALYZE contractor;", new HashMap<>());
+            return jdbcTemplate.queryForList("EXPLAIN SELECT * FROM contractor WHERE " + condition, params, String.class);
+        });
+        String joined = String.join("\n", plan);
+        Assertions.assertFalse(joined.contains("Seq Scan"), joined);
+        for (String index : List.of("contractor_name_trgm_idx", "contractor_name_full_trgm_idx",
+                "contractor_inn_trgm_idx", "contractor_ogrn_trgm_idx")) {
+            Assertions.assertTrue(joined.contains(index), joined);
+        }
+    }
+
 }
@@ -1,6 +1,7 @@
 package com.example.Contractor.Repository;
 
 import com.example.Contractor.AbstractContainer;
+import com.example.Contractor.DTO.OutboxBacklog;
 import com.example.Contractor.DTO.OutboxMessage;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
@@ -10,7 +11,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 
 import java.util.Collections;
-import java.util.Optional;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.IntStream;
 
 @SpringBootTest
 public class OutboxRepositoryTest extends AbstractContainer {
@@ -18,6 +21,9 @@ public class OutboxRepositoryTest extends AbstractContainer {
     @Autowired
     private OutboxRepository repository;
 
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
     @BeforeAll
     public static void setup(@Autowired NamedParameterJdbcTemplate jdbcTemplate) {
         String sql = """
@@ -26,25 +32,122 @@ public class OutboxRepositoryTest extends AbstractContainer {
                 """;
         jdbcTemplate.update(sql, Collections.singletonMap("id", "default"));
         jdbcTemplate.update(sql, Collections.singletonMap("id", "delete"));
+        jdbcTemplate.update(sql, Collections.singletonMap("id", "delete_batch_1"));
+        jdbcTemplate.update(sql, Collections.singletonMap("id", "delete_batch_2"));
     }
 
     @Test
     public void testSave() {
         OutboxMessage message = getTestMessage();
-        Optional<OutboxMessage> optMessage =  repository.save(message);
-        Assertions.assertEquals("test", optMessage.get().getId());
+        Assertions.assertEquals(1, repository.save(message));
+        Assertions.assertEquals(1, repository.save(message));
+    }
+
+    @Test
+    public void testSaveAllAboveBindParameterLimit() {
+        List<OutboxMessage> messages = IntStream.range(0, 9000)
+                .mapToObj(i -> new OutboxMessage("save_all_" + i, "test"))
+                .toList();
+        Assertions.assertEquals(messages.size(), repository.saveAll(messages));
+        Assertions.assertEquals(messages.size(), jdbcTemplate.update("DELETE FROM outbox WHERE id LIKE 'save_all_%';",
+                new HashMap<>()));
+    }
+
+    @Test
+    public void testClaimBatch() {
+        List<OutboxMessage> messages = repository.claimBatch("owner", 2, 0);
+        Assertions.assertEquals(2, messages.size());
+        Assertions.assertEquals("test", messages.getFirst().getPayload());
+    }
+
+    @Test
+    public void testClaimPartition() {
+        List<OutboxMessage> messages = repository.claimPartition(0, 1, "owner", 10, 0);
+        Assertions.assertFalse(messages.isEmpty());
+        for (int i = 1; i < messages.size(); i++) {
+            Assertions.assertTrue(messages.get(i - 1).getSeq() < messages.get(i).getSeq());
+        }
+        int claimed = repository.claimPartition(0, 2, "owner", 10, 0).size()
+                + repository.claimPartition(1, 2, "owner", 10, 0).size();
+        Assertions.assertEquals(messages.size(), claimed);
+    }
+
+    @Test
+    public void testDeleteLeased() {
+        repository.save(new OutboxMessage("lease", "test"));
+        OutboxMessage message = getLeaseMessage();
+        jdbcTemplate.update("UPDATE outbox SET lease_owner = 'owner' WHERE id = 'lease';", new HashMap<>());
+        Assertions.assertEquals(0, repository.deleteLeased("other", List.of(message)));
+        repository.save(new OutboxMessage("lease", "replaced"));
+        Assertions.assertEquals("owner", getLeaseOwner());
+        Assertions.assertEquals(0, repository.deleteLeased("owner", List.of(message)));
+        Assertions.assertNull(getLeaseOwner());
+        repository.save(new OutboxMessage("lease", "replaced"));
+        OutboxMessage replaced = getLeaseMessage();
+        jdbcTemplate.update("UPDATE outbox SET lease_owner = 'owner' WHERE id = 'lease';", new HashMap<>());
+        Assertions.assertEquals(1, repository.deleteLeased("owner", List.of(replaced)));
     }
 
     @Test
-    public void testGetFirst() {
-        Optional<OutboxMessage> optMessage = repository.getFirst();
-        Assertions.assertEquals("test", optMessage.get().getPayload());
+    public void testMarkFailed() {
+        repository.save(new OutboxMessage("lease_failed", "test"));
+        OutboxMessage message = getLeaseMessage("lease_failed");
+        jdbcTemplate.update("UPDATE outbox SET lease_owner = 'owner' WHERE id = 'lease_failed';", new HashMap<>());
+        Assertions.assertEquals(0, repository.markFailed(List.of(message), "other", "error", 1000, 60000));
+        repository.save(new OutboxMessage("lease_failed", "replaced"));
+        Assertions.assertEquals(0, repository.markFailed(List.of(message), "owner", "error", 1000, 60000));
+        Assertions.assertEquals(0, getAttempts("lease_failed"));
+        Assertions.assertNull(getLeaseOwner("lease_failed"));
+        OutboxMessage replaced = getLeaseMessage("lease_failed");
+        jdbcTemplate.update("UPDATE outbox SET lease_owner = 'owner' WHERE id = 'lease_failed';", new HashMap<>());
+        Assertions.assertEquals(1, repository.markFailed(List.of(replaced), "owner", "error", 1000, 60000));
+        Assertions.assertEquals(1, getAttempts("lease_failed"));
+        Assertions.assertNull(getLeaseOwner("lease_failed"));
     }
 
     @Test
-    public void testDeleteById() {
-        int deleted = repository.deleteById("delete");
-        Assertions.assertEquals(1, deleted);
+    public void testMoveToDeadLetter() {
+        repository.save(new OutboxMessage("dead", "test"));
+        OutboxMessage message = getLeaseMessage("dead");
+        jdbcTemplate.update("UPDATE outbox SET attempts = 5 WHERE id = 'dead';", new HashMap<>());
+        repository.save(new OutboxMessage("dead", "replaced"));
+        jdbcTemplate.update("UPDATE outbox SET attempts = 5 WHERE id = 'dead';", new HashMap<>());
+        Assertions.assertEquals(0, repository.moveToDeadLetter(List.of(message), 5));
+        OutboxMessage replaced = getLeaseMessage("dead");
+        Assertions.assertEquals(0, repository.moveToDeadLetter(List.of(replaced), 6));
+        Assertions.assertEquals(1, repository.moveToDeadLetter(List.of(replaced), 5));
+    }
+
+    @Test
+    public void testGetBacklog() {
+        OutboxBacklog backlog = repository.getBacklog();
+        Assertions.assertTrue(backlog.getSize() > 0);
+        Assertions.assertTrue(backlog.getOldestAge() >= 0);
+    }
+
+    private OutboxMessage getLeaseMessage() {
+        return getLeaseMessage("lease");
+    }
+
+    private OutboxMessage getLeaseMessage(String id) {
+        OutboxMessage message = new OutboxMessage(id, null);
+        message.setSeq(jdbcTemplate.queryForObject("SELECT seq FROM outbox WHERE id = :id;",
+                Collections.singletonMap("id", id), Long.class));
+        return message;
+    }
+
+    private String getLeaseOwner() {
+        return getLeaseOwner("lease");
+    }
+
+    private String getLeaseOwner(String id) {
+        return jdbcTemplate.queryForObject("SELECT lease_owner FROM outbox WHERE id = :id;",
+                Collections.singletonMap("id", id), String.class);
+    }
+
+    private int getAttempts(String id) {
+        return jdbcTemplate.queryForObject("SELECT attempts FROM outbox WHERE id = :id;",
+                Collections.singletonMap("id", id), Integer.class);
     }
 
     private OutboxMessage getTestMessage() {
@@ -0,0 +1,76 @@
+package com.example.Contractor.batch;
+
+import com.example.Contractor.AbstractContainer;
+import com.example.Contractor.DTO.BatchItemResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@SpringBootTest(properties = {"app.schedule.fixedDelay=60000", "app.schedule.initialDelay=60000"})
+@DirtiesContext
+public class ContractorBatchImporterTest extends AbstractContainer {
+
+    @Autowired
+    private ContractorBatchImporter importer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void cleanup() {
+        jdbcTemplate.update("DELETE FROM outbox WHERE id LIKE 'batch_%'");
+        jdbcTemplate.update("DELETE FROM contractor WHERE id LIKE 'batch_%'");
+    }
+
+    @Test
+    public void testImportAll() throws Exception {
+        ReflectionTestUtils.setField(importer, "chunkSize", 3);
+        List<BatchItemResult> results = importAll("""
+                [
+                {"id": "batch_1", "name": "first", "country": "ABH", "industry": 1, "orgForm": 1},
+                {"id": "batch_2", "name": "second", "country": "ABH", "industry": 1, "orgForm": 1},
+                {"id": "batch_1", "name": "first updated", "country": "ABH", "industry": 1, "orgForm": 1},
+                {"id": "batch_3"},
+                {"id": "batch_4", "name": "bad country", "country": "XXX", "industry": 1, "orgForm": 1},
+                {"id": "batch_5", "name": "fifth", "industry": "not a number"},
+                {"id": "batch_6", "name": "sixth", "country": "ABH", "industry": 1, "orgForm": 1}
+                ]
+                """);
+        Assertions.assertEquals(List.of(BatchItemResult.Status.SUPERSEDED, BatchItemResult.Status.SAVED,
+                BatchItemResult.Status.SAVED, BatchItemResult.Status.INVALID, BatchItemResult.Status.FAILED,
+                BatchItemResult.Status.INVALID, BatchItemResult.Status.SAVED),
+                results.stream().map(BatchItemResult::getStatus).toList());
+        Assertions.assertEquals("first updated",
+                jdbcTemplate.queryForObject("SELECT name FROM contractor WHERE id = 'batch_1'", String.class));
+        Assertions.assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM contractor WHERE id LIKE 'batch_%'", Integer.class));
+        Assertions.assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM outbox WHERE id LIKE 'batch_%'", Integer.class));
+    }
+
+    @Test
+    public void testMalformedJson() throws Exception {
+        List<BatchItemResult> results = importAll("""
+                [{"id": "batch_1", "name": "first", "country": "ABH", "industry": 1, "orgForm": 1}, {"id": "batch_2", "name":
+                """);
+        Assertions.assertEquals(2, results.size());
+        Assertions.assertEquals(BatchItemResult.Status.SAVED, results.get(0).getStatus());
+        Assertions.assertEquals(BatchItemResult.Status.FAILED, results.get(1).getStatus());
+        Assertions.assertThrows(IOException.class, () -> importAll("{\"id\": \"batch_1\"}"));
+    }
+
+    private List<BatchItemResult> importAll(String json) throws IOException {
+        return importer.importAll(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.example.Contractor.cache;
+
+import com.example.Contractor.AbstractContainer;
+import com.example.Contractor.DTO.Contractor;
+import com.example.Contractor.DTO.Country;
+import com.example.Contractor.Repository.ContractorRepository;
+import com.example.Contractor.Service.Cached.ContractorCachedService;
+import com.example.Contractor.Service.ContractorService;
+import com.example.Contractor.search.ContractorChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+@SpringBootTest(properties = {"app.schedule.fixedDelay=60000", "app.schedule.initialDelay=60000"})
+public class ContractorCacheTest extends AbstractContainer {
+
+    private final String key = "contractors::cache_1";
+
+    @Autowired
+    private ContractorService service;
+
+    @Autowired
+    private ContractorCachedService cachedService;
+
+    @Autowired
+    private ContractorRepository repository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @AfterEach
+    public void cleanup() {
+        jdbcTemplate.update("DELETE FROM outbox WHERE id = 'cache_1'");
+        jdbcTemplate.update("DELETE FROM contractor WHERE id = 'cache_1'");
+        cachedService.onChange(new ContractorChangedEvent("cache_1", null));
+    }
+
+    @Test
+    public void testCachedAfterFirstCall() {
+        service.save(contractor("cached"));
+        expireTombstone();
+        Assertions.assertFalse(redisTemplate.hasKey(key));
+        double hits = l1Gets("hit");
+        List<Object> details = service.get("cache_1").get();
+        Assertions.assertTrue(redisTemplate.hasKey(key));
+        Assertions.assertEquals("Абхазия", ((Country) details.get(1)).getName());
+        jdbcTemplate.update("UPDATE contractor SET name = 'changed' WHERE id = 'cache_1'");
+        Assertions.assertEquals("cached", ((Contractor) service.get("cache_1").get().get(0)).getName());
+        Assertions.assertEquals(hits + 1, l1Gets("hit"));
+    }
+
+    @Test
+    public void testRemoveCacheAfterSaving() {
+        service.save(contractor("cached"));
+        expireTombstone();
+        service.get("cache_1");
+        Assertions.assertTrue(redisTemplate.hasKey(key));
+        service.save(contractor("saved"));
+        Assertions.assertFalse(redisTemplate.hasKey(key));
+        Assertions.assertEquals("saved", ((Contractor) service.get("cache_1").get().get(0)).getName());
+    }
+
+    @Test
+    public void testRemoveCacheAfterDeleting() {
+        service.save(contractor("cached"));
+        Assertions.assertTrue(((Contractor) service.get("cache_1").get().get(0)).isActive());
+        service.delete("cache_1");
+        Assertions.assertFalse(redisTemplate.hasKey(key));
+        Assertions.assertFalse(((Contractor) service.get("cache_1").get().get(0)).isActive());
+    }
+
+    @Test
+    public void testAbsentNotCached() {
+        Assertions.assertTrue(service.get("cache_1").isEmpty());
+        Assertions.assertFalse(redisTemplate.hasKey(key));
+    }
+
+    @Test
+    public void testOutdatedRowNotWrittenAfterEviction() {
+        service.save(contractor("cached"));
+        expireTombstone();
+        Contractor outdated = repository.getContractor("cache_1").get();
+        service.save(contractor("saved"));
+        ReflectionTestUtils.invokeMethod(cachedService, "putRemote", "cache_1", outdated);
+        Assertions.assertFalse(redisTemplate.hasKey(key));
+        Assertions.assertEquals("saved", ((Contractor) service.get("cache_1").get().get(0)).getName());
+        expireTombstone();
+        ReflectionTestUtils.invokeMethod(cachedService, "putRemote", "cache_1", outdated);
+        Assertions.assertTrue(redisTemplate.hasKey(key));
+    }
+
+    /**
+     * Simulates passing of tombstone ttl.
+     */
+    private void expireTombstone() {
+        redisTemplate.delete(ContractorCachedService.TOMBSTONE_PREFIX + "cache_1");
+    }
+
+    private double l1Gets(String result) {
+        return registry.get("cache.gets").tag("cache", "contractors.l1").tag("result", result).functionCounter().count();
+    }
+
+    private Contractor contractor(String name) {
+        Contractor contractor = new Contractor();
+        contractor.setId("cache_1");
+        contractor.setName(name);
+        contractor.setCountry("ABH");
+        contractor.setIndustry(1);
+        contractor.setOrgForm(1);
+        return contractor;
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.example.Contractor.cache;
+
+import com.example.Contractor.AbstractContainer;
+import com.example.Contractor.DTO.Contractor;
+import com.example.Contractor.DTO.Country;
+import com.example.Contractor.DTO.Industry;
+import com.example.Contractor.DTO.OrgForm;
+import com.example.Contractor.Service.Cached.ContractorCachedService;
+import com.example.Contractor.Service.ContractorService;
+import com.example.Contractor.Service.CountryService;
+import com.example.Contractor.search.ContractorChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+@SpringBootTest(properties = {"app.schedule.fixedDelay=60000", "app.schedule.initialDelay=60000"})
+public class ReferenceSnapshotTest extends AbstractContainer {
+
+    @Autowired
+    private ContractorService contractorService;
+
+    @Autowired
+    private CountryService countryService;
+
+    @Autowired
+    private ContractorCachedService cachedService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void cleanup() {
+        jdbcTemplate.update("DELETE FROM outbox WHERE id = 'ref_1'");
+        jdbcTemplate.update("DELETE FROM contractor WHERE id = 'ref_1'");
+        jdbcTemplate.update("DELETE FROM country WHERE id = 'REF'");
+        cachedService.onChange(new ContractorChangedEvent("ref_1", null));
+    }
+
+    @Test
+    public void testDetailsResolvedFromSnapshot() {
+        countryService.save(new Country("REF", "reference", true));
+        contractorService.save(contractor("REF"));
+        List<Object> details = contractorService.get("ref_1").get();
+        Assertions.assertEquals("ref_1", ((Contractor) details.get(0)).getId());
+        Assertions.assertEquals("reference", ((Country) details.get(1)).getName());
+        Assertions.assertEquals(1, ((Industry) details.get(2)).getId());
+        Assertions.assertEquals(1, ((OrgForm) details.get(3)).getId());
+    }
+
+    @Test
+    public void testSnapshotInvalidatedByReferenceChange() {
+        countryService.save(new Country("REF", "reference", true));
+        contractorService.save(contractor("REF"));
+        contractorService.get("ref_1");
+        countryService.save(new Country("REF", "renamed", true));
+        Assertions.assertEquals("renamed", ((Country) contractorService.get("ref_1").get().get(1)).getName());
+        countryService.delete("REF");
+        Assertions.assertFalse(((Country) contractorService.get("ref_1").get().get(1)).isActive());
+    }
+
+    @Test
+    public void testNewReferenceLoadedOnMiss() {
+        contractorService.save(contractor("ABH"));
+        Assertions.assertEquals("Абхазия", ((Country) contractorService.get("ref_1").get().get(1)).getName());
+        jdbcTemplate.update("INSERT INTO country (id, name) VALUES ('REF', 'inserted')");
+        contractorService.save(contractor("REF"));
+        Assertions.assertEquals("inserted", ((Country) contractorService.get("ref_1").get().get(1)).getName());
+    }
+
+    @Test
+    public void testNoDetailsWithoutCountry() {
+        contractorService.save(contractor(null));
+        Assertions.assertTrue(contractorService.get("ref_1").isEmpty());
+    }
+
+    private Contractor contractor(String country) {
+        Contractor contractor = new Contractor();
+        contractor.setId("ref_1");
+        contractor.setName("reference");
+        contractor.setCountry(country);
+        contractor.setIndustry(1);
+        contractor.setOrgForm(1);
+        return contractor;
+    }
+
+}
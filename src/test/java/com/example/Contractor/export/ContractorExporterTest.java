@@ -0,0 +1,80 @@
+package com.example.Contractor.export;
+
+import com.example.Contractor.AbstractContainer;
+import com.example.Contractor.DTO.ContractorSearch;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@SpringBootTest
+public class ContractorExporterTest extends AbstractContainer {
+
+    @Autowired
+    private ContractorExporter exporter;
+
+    @BeforeAll
+    public static void setup(@Autowired JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("""
+        INSERT INTO contractor (id, name, name_full, inn, country, industry, org_form)
+        VALUES ('e1', 'export', 'Export, "quoted"', '123', 'ABH', 1, 1),
+        ('e2', 'export', null, null, 'ABH', 1, 1)
+        """);
+    }
+
+    @AfterAll
+    public static void cleanup(@Autowired JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("DELETE FROM contractor WHERE id IN ('e1', 'e2')");
+    }
+
+    @Test
+    public void testExportNdjson() throws Exception {
+        List<String> lines = export(ExportFormat.NDJSON);
+        Assertions.assertEquals(2, lines.size());
+        ObjectMapper mapper = new ObjectMapper();
+        Assertions.assertEquals("e1", mapper.readTree(lines.get(0)).get("id").asText());
+        Assertions.assertEquals("Export, \"quoted\"", mapper.readTree(lines.get(0)).get("nameFull").asText());
+        Assertions.assertEquals("e2", mapper.readTree(lines.get(1)).get("id").asText());
+    }
+
+    @Test
+    public void testExportCsv() throws Exception {
+        List<String> lines = export(ExportFormat.CSV);
+        Assertions.assertEquals(3, lines.size());
+        Assertions.assertTrue(lines.get(0).startsWith("id,parent_id,name,name_full"));
+        Assertions.assertTrue(lines.get(1).startsWith("e1,,export,\"Export, \"\"quoted\"\"\",123,,ABH,1,1,"));
+        Assertions.assertTrue(lines.get(2).startsWith("e2,,export,,,,ABH,1,1,"));
+    }
+
+    @Test
+    public void testExportXlsx() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exporter.export(new ContractorSearch(null, null, "export", null, null, null), ExportFormat.XLSX, output);
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(output.toByteArray()))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            Assertions.assertEquals(2, sheet.getLastRowNum());
+            Assertions.assertEquals("e1", sheet.getRow(1).getCell(0).getStringCellValue());
+            Assertions.assertEquals("Абхазия", sheet.getRow(1).getCell(7).getStringCellValue());
+            Assertions.assertEquals("Авиастроение", sheet.getRow(1).getCell(9).getStringCellValue());
+            Assertions.assertEquals("e2", sheet.getRow(2).getCell(0).getStringCellValue());
+        }
+    }
+
+    private List<String> export(ExportFormat format) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exporter.export(new ContractorSearch(null, null, "export", null, null, null), format, output);
+        return output.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+}
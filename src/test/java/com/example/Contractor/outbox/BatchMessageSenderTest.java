@@ -0,0 +1,134 @@
+package com.example.Contractor.outbox;
+
+import com.example.Contractor.AbstractContainer;
+import com.example.Contractor.rabbitMQ.RabbitProducer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+
+@SpringBootTest(properties = {"app.outbox.mode=BATCH", "app.outbox.batchSize=2",
+        "app.schedule.fixedDelay=60000", "app.schedule.initialDelay=60000"})
+@DirtiesContext
+public class BatchMessageSenderTest extends AbstractContainer {
+
+    @Autowired
+    private ScheduleMessageSender sender;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @MockitoBean
+    private RabbitProducer producer;
+
+    @BeforeEach
+    public void setup() {
+        jdbcTemplate.update("DELETE FROM outbox;", new HashMap<>());
+        String sql = """
+                INSERT INTO outbox
+                SELECT :id, 'test';
+                """;
+        jdbcTemplate.update(sql, Collections.singletonMap("id", "batch_1"));
+        jdbcTemplate.update(sql, Collections.singletonMap("id", "batch_2"));
+        jdbcTemplate.update(sql, Collections.singletonMap("id", "batch_3"));
+    }
+
+    @Test
+    public void testBatchSuccess() throws Exception {
+        Mockito.when(producer.sendAll(anyList())).thenReturn(List.of(true, true));
+        double sentBefore = registry.get("outbox.messages.sent").counter().count();
+        Assertions.assertEquals(2, sender.pollAndSend());
+        Assertions.assertEquals(1, outboxCount());
+        Assertions.assertEquals(sentBefore + 2, registry.get("outbox.messages.sent").counter().count());
+        Assertions.assertTrue(registry.get("outbox.event.latency").timer().count() >= 2);
+    }
+
+    @Test
+    public void testBatchPartialFailure() throws Exception {
+        Mockito.when(producer.sendAll(anyList())).thenReturn(List.of(false, true));
+        Assertions.assertEquals(1, sender.pollAndSend());
+        Assertions.assertEquals(2, outboxCount());
+    }
+
+    @Test
+    public void testBatchBrokerFailure() throws Exception {
+        Mockito.when(producer.sendAll(anyList())).thenThrow(new IOException("test"));
+        Assertions.assertEquals(0, sender.pollAndSend());
+        Assertions.assertEquals(3, outboxCount());
+    }
+
+    @Test
+    public void testFailedMessagePostponed() throws Exception {
+        Mockito.when(producer.sendAll(anyList())).thenReturn(List.of(false, true));
+        sender.pollAndSend();
+        String sql = """
+                SELECT attempts
+                FROM outbox
+                WHERE id = :id AND next_attempt_at > now() AND last_error IS NOT NULL;
+                """;
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject(sql, Collections.singletonMap("id", "batch_1"), Integer.class));
+        Mockito.when(producer.sendAll(anyList())).thenReturn(List.of(true));
+        Assertions.assertEquals(1, sender.pollAndSend());
+        Assertions.assertEquals(1, outboxCount());
+    }
+
+    @Test
+    public void testDeadLetter() throws Exception {
+        jdbcTemplate.update("UPDATE outbox SET attempts = 9 WHERE id = 'batch_1';", new HashMap<>());
+        Mockito.when(producer.sendAll(anyList())).thenReturn(List.of(false, false));
+        int deadBefore = deadLetterCount();
+        Assertions.assertEquals(0, sender.pollAndSend());
+        Assertions.assertEquals(2, outboxCount());
+        Assertions.assertEquals(deadBefore + 1, deadLetterCount());
+    }
+
+    @Test
+    public void testExpiredLeaseReclaimed() throws Exception {
+        jdbcTemplate.update("""
+                UPDATE outbox
+                SET lease_owner = 'crashed', lease_until = now() - interval '1 second'
+                WHERE id = 'batch_1';
+                """, new HashMap<>());
+        jdbcTemplate.update("""
+                UPDATE outbox
+                SET lease_owner = 'alive', lease_until = now() + interval '1 minute'
+                WHERE id = 'batch_2';
+                """, new HashMap<>());
+        Mockito.when(producer.sendAll(anyList())).thenReturn(List.of(true, true));
+        Assertions.assertEquals(2, sender.pollAndSend());
+        Assertions.assertEquals(1, outboxCount());
+    }
+
+    private int deadLetterCount() {
+        String sql = """
+                SELECT COUNT(*)
+                FROM outbox_dead_letter;
+                """;
+        return jdbcTemplate.queryForObject(sql, new HashMap<>(), Integer.class);
+    }
+
+    private int outboxCount() {
+        String sql = """
+                SELECT COUNT(*)
+                FROM outbox;
+                """;
+        return jdbcTemplate.queryForObject(sql, new HashMap<>(), Integer.class);
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.example.Contractor.outbox;
+
+import com.example.Contractor.AbstractContainer;
+import com.example.Contractor.DTO.Contractor;
+import com.example.Contractor.Service.ContractorService;
+import com.example.Contractor.publisher.InMemoryEventPublisher;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures end-to-end outbox throughput and latency -
+ * from {@link ContractorService#save} call to publish confirmation.
+ * <p>
+ * Excluded from regular build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {"app.outbox.mode=PARTITIONED", "app.publisher.type=memory",
+        "app.schedule.fixedDelay=60000", "app.schedule.initialDelay=60000"})
+@DirtiesContext
+public class OutboxBenchmarkTest extends AbstractContainer {
+
+    private static final int MESSAGES = 2000;
+
+    private static final int WRITERS = 4;
+
+    private final Logger logger = LogManager.getLogger();
+
+    @Autowired
+    private ContractorService contractorService;
+
+    @Autowired
+    private ScheduleMessageSender sender;
+
+    @Autowired
+    private InMemoryEventPublisher publisher;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void cleanup() {
+        jdbcTemplate.update("DELETE FROM outbox;", new HashMap<>());
+        jdbcTemplate.update("DELETE FROM contractor WHERE id LIKE 'bench_%';", new HashMap<>());
+        publisher.clear();
+    }
+
+    @ParameterizedTest(name = "batchSize = {0}, senders = {1}")
+    @CsvSource({"10, 1", "100, 1", "500, 1", "100, 2", "100, 4", "500, 4"})
+    public void benchmark(int batchSize, int senders) throws Exception {
+        ReflectionTestUtils.setField(sender, "batchSize", batchSize);
+        ReflectionTestUtils.setField(sender, "partitions", senders);
+        sender.shutdown();
+        sender.init();
+        publisher.clear();
+
+        Map<String, Long> savedAt = new ConcurrentHashMap<>();
+        String prefix = "bench_" + batchSize + "_" + senders + "_";
+        long start = System.nanoTime();
+        ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            writers.submit(() -> {
+                for (int i = writer; i < MESSAGES; i += WRITERS) {
+                    String id = prefix + i;
+                    savedAt.put(id, System.nanoTime());
+                    contractorService.save(contractor(id));
+                }
+            });
+        }
+        writers.shutdown();
+
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (publisher.size() < MESSAGES && System.nanoTime() < deadline) {
+            if (sender.pollAndSend() == 0) {
+                Thread.sleep(1);
+            }
+        }
+        long end = System.nanoTime();
+        Assertions.assertTrue(writers.awaitTermination(1, TimeUnit.MINUTES));
+        Assertions.assertEquals(MESSAGES, publisher.size());
+
+        long[] latencies = publisher.getPublished().stream()
+                .mapToLong(event -> event.getPublishedAt() - savedAt.get(event.getId()))
+                .sorted()
+                .toArray();
+        logger.info("Outbox benchmark: batchSize = {}, senders = {} - {} msg/s, latency p50 = {} ms, p99 = {} ms, max = {} ms",
+                batchSize, senders,
+                String.format("%.0f", MESSAGES / ((end - start) / 1e9)),
+                millis(latencies[latencies.length / 2]),
+                millis(latencies[(int) (latencies.length * 0.99)]),
+                millis(latencies[latencies.length - 1]));
+    }
+
+    private Contractor contractor(String id) {
+        Contractor contractor = new Contractor();
+        contractor.setId(id);
+        contractor.setName("benchmark");
+        contractor.setCountry("ABH");
+        contractor.setIndustry(1);
+        contractor.setOrgForm(1);
+        return contractor;
+    }
+
+    private String millis(long nanos) {
+        return String.format("%.2f", nanos / 1e6);
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.example.Contractor.outbox;
+
+import com.example.Contractor.AbstractContainer;
+import com.example.Contractor.DTO.Contractor;
+import com.example.Contractor.Service.ContractorService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes contractors through {@link ContractorService#save} and measures how outbox keeps up:
+ * drain time, publish rate and p50/p99 latency from saving to receiving by RabbitMQ consumer.
+ * <p>
+ * Results are compared with baseline from {@code load/outbox-baseline.properties}.
+ * Excluded from regular build; run with {@code mvn test -Pload}.
+ */
+@Tag("load")
+@SpringBootTest(properties = {"app.outbox.mode=PARTITIONED", "app.outbox.partitions=4", "app.outbox.batchSize=500",
+        "app.outbox.notify=true", "app.schedule.fixedDelay=100", "app.schedule.initialDelay=0"})
+@DirtiesContext
+public class OutboxLoadTest extends AbstractContainer {
+
+    private final Logger logger = LogManager.getLogger();
+
+    @Autowired
+    private ContractorService contractorService;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Value("${app.rabbit.queue}")
+    private String queue;
+
+    @Value("${app.rabbit.exchange}")
+    private String exchange;
+
+    @AfterEach
+    public void cleanup() {
+        jdbcTemplate.update("DELETE FROM outbox;", new HashMap<>());
+        jdbcTemplate.update("DELETE FROM contractor WHERE id LIKE 'load_%';", new HashMap<>());
+    }
+
+    @Test
+    public void testOutboxKeepsUpWithWrites() throws Exception {
+        Properties baseline = new Properties();
+        try (InputStream input = getClass().getResourceAsStream("/load/outbox-baseline.properties")) {
+            baseline.load(input);
+        }
+        int messages = Integer.parseInt(baseline.getProperty("messages"));
+        int writers = Integer.parseInt(baseline.getProperty("writers"));
+        double tolerance = Double.parseDouble(baseline.getProperty("tolerance"));
+
+        Map<String, Long> savedAt = new ConcurrentHashMap<>();
+        Map<String, Long> receivedAt = new ConcurrentHashMap<>();
+        AtomicLong lastReceived = new AtomicLong();
+        ObjectMapper mapper = new ObjectMapper();
+
+        ConnectionFactory factory = new ConnectionFactory();
+        factory.setHost(System.getProperty("app.rabbit.host"));
+        factory.setPort(Integer.parseInt(System.getProperty("app.rabbit.port")));
+        try (Connection connection = factory.newConnection()) {
+            Channel channel = connection.createChannel();
+            channel.queueDeclare(queue, false, false, false, null);
+            channel.exchangeDeclare(exchange, "direct", true);
+            channel.queueBind(queue, exchange, queue);
+            channel.queuePurge(queue);
+            channel.basicConsume(queue, true, (consumerTag, delivery) -> {
+                long now = System.nanoTime();
+                String id = mapper.readTree(delivery.getBody()).path("id").asText();
+                if (id.startsWith("load_")) {
+                    receivedAt.putIfAbsent(id, now);
+                    lastReceived.set(now);
+                }
+            }, consumerTag -> { });
+
+            long start = System.nanoTime();
+            ExecutorService pool = Executors.newFixedThreadPool(writers);
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                pool.submit(() -> {
+                    for (int i = writer; i < messages; i += writers) {
+                        String id = "load_" + i;
+                        savedAt.put(id, System.nanoTime());
+                        contractorService.save(contractor(id));
+                    }
+                });
+            }
+            pool.shutdown();
+            Assertions.assertTrue(pool.awaitTermination(10, TimeUnit.MINUTES));
+            long written = System.nanoTime();
+
+            long deadline = written + TimeUnit.MINUTES.toNanos(5);
+            while (receivedAt.size() < messages && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            Assertions.assertEquals(messages, receivedAt.size());
+
+            long[] latencies = receivedAt.entrySet().stream()
+                    .mapToLong(entry -> entry.getValue() - savedAt.get(entry.getKey()))
+                    .sorted()
+                    .toArray();
+            double publishRate = messages / ((lastReceived.get() - start) / 1e9);
+            double drainSeconds = Math.max(0, lastReceived.get() - written) / 1e9;
+            double p50 = latencies[latencies.length / 2] / 1e6;
+            double p99 = latencies[(int) (latencies.length * 0.99)] / 1e6;
+            logger.info("Outbox load test: publishRate = {} msg/s, drainSeconds = {}, latencyP50Ms = {}, latencyP99Ms = {}",
+                    String.format("%.0f", publishRate), String.format("%.2f", drainSeconds),
+                    String.format("%.1f", p50), String.format("%.1f", p99));
+
+            Assertions.assertTrue(publishRate >= value(baseline, "publishRate") * (1 - tolerance),
+                    "Publish rate regression - " + publishRate + " msg/s");
+            Assertions.assertTrue(drainSeconds <= value(baseline, "drainSeconds") * (1 + tolerance),
+                    "Drain time regression - " + drainSeconds + " s");
+            Assertions.assertTrue(p50 <= value(baseline, "latencyP50Ms") * (1 + tolerance),
+                    "p50 latency regression - " + p50 + " ms");
+            Assertions.assertTrue(p99 <= value(baseline, "latencyP99Ms") * (1 + tolerance),
+                    "p99 latency regression - " + p99 + " ms");
+        }
+    }
+
+    private double value(Properties baseline, String key) {
+        return Double.parseDouble(baseline.getProperty(key));
+    }
+
+    private Contractor contractor(String id) {
+        Contractor contractor = new Contractor();
+        contractor.setId(id);
+        contractor.setName("load");
+        contractor.setCountry("ABH");
+        contractor.setIndustry(1);
+        contractor.setOrgForm(1);
+        return contractor;
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.example.Contractor.outbox;
+
+import com.example.Contractor.AbstractContainer;
+import com.example.Contractor.DTO.OutboxMessage;
+import com.example.Contractor.Repository.OutboxLogRepository;
+import com.example.Contractor.Service.OutboxService;
+import com.example.Contractor.rabbitMQ.RabbitProducer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+
+@SpringBootTest(properties = {"app.outbox.mode=LOG", "app.outbox.batchSize=10",
+        "app.schedule.fixedDelay=60000", "app.schedule.initialDelay=60000"})
+@DirtiesContext
+public class OutboxLogSenderTest extends AbstractContainer {
+
+    @Autowired
+    private ScheduleMessageSender sender;
+
+    @Autowired
+    private OutboxService service;
+
+    @Autowired
+    private OutboxLogRepository logRepository;
+
+    @Autowired
+    private OutboxLogMaintenance maintenance;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private RabbitProducer producer;
+
+    @Test
+    public void testEveryWriteSent() throws Exception {
+        Mockito.when(producer.sendAll(anyList())).thenAnswer(invocation ->
+                Collections.nCopies(((List<?>) invocation.getArgument(0)).size(), true));
+        sender.pollAndSend();
+        service.save(new OutboxMessage("log_1", "first"));
+        service.save(new OutboxMessage("log_1", "second"));
+        service.save(new OutboxMessage("log_2", "first"));
+        Assertions.assertEquals(3, sender.pollAndSend());
+        Assertions.assertEquals(0, sender.pollAndSend());
+        Assertions.assertEquals(0, service.getBacklog().getSize());
+    }
+
+    @Test
+    public void testUnconfirmedSentAgain() throws Exception {
+        Mockito.when(producer.sendAll(anyList())).thenAnswer(invocation ->
+                Collections.nCopies(((List<?>) invocation.getArgument(0)).size(), true));
+        sender.pollAndSend();
+        service.save(new OutboxMessage("retry_1", "test"));
+        service.save(new OutboxMessage("retry_2", "test"));
+        service.save(new OutboxMessage("retry_3", "test"));
+        Mockito.when(producer.sendAll(anyList())).thenReturn(List.of(true, false, true));
+        Assertions.assertEquals(1, sender.pollAndSend());
+        Mockito.when(producer.sendAll(anyList())).thenReturn(List.of(true, true));
+        Assertions.assertEquals(2, sender.pollAndSend());
+    }
+
+    @Test
+    public void testSentPartitionDropped() throws Exception {
+        Mockito.when(producer.sendAll(anyList())).thenAnswer(invocation ->
+                Collections.nCopies(((List<?>) invocation.getArgument(0)).size(), true));
+        LocalDate day = LocalDate.now(ZoneOffset.UTC).minusDays(3);
+        logRepository.createPartition(day);
+        jdbcTemplate.update("""
+                INSERT INTO outbox_log (id, payload, created_at)
+                VALUES ('old', 'test', now() - interval '3 days');
+                """, new HashMap<>());
+        maintenance.maintain();
+        Assertions.assertTrue(logRepository.getPartitions().contains(OutboxLogRepository.partitionName(day)));
+        sender.pollAndSend();
+        maintenance.maintain();
+        Assertions.assertFalse(logRepository.getPartitions().contains(OutboxLogRepository.partitionName(day)));
+        Assertions.assertTrue(logRepository.getPartitions().contains(
+                OutboxLogRepository.partitionName(LocalDate.now(ZoneOffset.UTC).plusDays(1))));
+    }
+
+}
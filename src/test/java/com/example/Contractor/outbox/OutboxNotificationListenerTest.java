@@ -0,0 +1,55 @@
+package com.example.Contractor.outbox;
+
+import com.example.Contractor.AbstractContainer;
+import com.example.Contractor.DTO.OutboxMessage;
+import com.example.Contractor.Service.OutboxService;
+import com.example.Contractor.rabbitMQ.RabbitProducer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.anyString;
+
+@SpringBootTest(properties = {"app.outbox.notify=true", "app.schedule.fixedDelay=60000",
+        "app.schedule.initialDelay=60000"})
+@DirtiesContext
+public class OutboxNotificationListenerTest extends AbstractContainer {
+
+    @Autowired
+    private OutboxService service;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private RabbitProducer producer;
+
+    @Test
+    public void testSentOnNotification() throws Exception {
+        Mockito.when(producer.send(anyString())).thenReturn(true);
+        service.save(new OutboxMessage("notify", "test"));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline && isSaved("notify")) {
+            Thread.sleep(50);
+        }
+        Assertions.assertFalse(isSaved("notify"));
+        Mockito.verify(producer).send("test");
+    }
+
+    private boolean isSaved(String id) {
+        String sql = """
+                SELECT COUNT(*)
+                FROM outbox
+                WHERE id = :id;
+                """;
+        return jdbcTemplate.queryForObject(sql, Collections.singletonMap("id", id), Integer.class) > 0;
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.example.Contractor.outbox;
+
+import com.example.Contractor.DTO.OutboxMessage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class OutboxPayloadCodecTest {
+
+    private final String payload = "{\"nameFull\":\"" + "Общество с ограниченной ответственностью ".repeat(50) + "\"}";
+
+    @Test
+    public void testLz4RoundTrip() {
+        OutboxMessage message = new OutboxPayloadCodec("lz4", 16).encode(new OutboxMessage("1", payload));
+        Assertions.assertNull(message.getPayload());
+        Assertions.assertEquals("lz4-block", message.getContentEncoding());
+        Assertions.assertTrue(message.getBody().length < payload.length());
+        Assertions.assertEquals(payload, OutboxPayloadCodec.decode(message));
+        message.setContentEncoding("lz4");
+        Assertions.assertEquals(payload, OutboxPayloadCodec.decode(message));
+    }
+
+    @Test
+    public void testZstdRoundTrip() {
+        OutboxMessage message = new OutboxPayloadCodec("zstd", 16).encode(new OutboxMessage("1", payload));
+        Assertions.assertEquals("zstd", message.getContentEncoding());
+        Assertions.assertTrue(message.getBody().length < payload.length());
+        Assertions.assertEquals(payload, OutboxPayloadCodec.decode(message));
+    }
+
+    @Test
+    public void testSmallPayloadNotCompressed() {
+        OutboxMessage message = new OutboxPayloadCodec("zstd", 1024).encode(new OutboxMessage("1", "{}"));
+        Assertions.assertEquals("{}", message.getPayload());
+        Assertions.assertNull(message.getContentEncoding());
+    }
+
+    @Test
+    public void testCompressionOff() {
+        OutboxMessage message = new OutboxPayloadCodec("none", 16).encode(new OutboxMessage("1", payload));
+        Assertions.assertEquals(payload, message.getPayload());
+        Assertions.assertNull(message.getCompressedPayload());
+    }
+
+}
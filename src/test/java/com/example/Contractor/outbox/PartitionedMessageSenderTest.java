@@ -0,0 +1,90 @@
+package com.example.Contractor.outbox;
+
+import com.example.Contractor.AbstractContainer;
+import com.example.Contractor.rabbitMQ.RabbitProducer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.ArgumentMatchers.anyList;
+
+@SpringBootTest(properties = {"app.outbox.mode=PARTITIONED", "app.outbox.partitions=2",
+        "app.schedule.fixedDelay=60000", "app.schedule.initialDelay=60000"})
+@DirtiesContext
+public class PartitionedMessageSenderTest extends AbstractContainer {
+
+    @Autowired
+    private ScheduleMessageSender sender;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @MockitoBean
+    private RabbitProducer producer;
+
+    @BeforeEach
+    public void setup() {
+        jdbcTemplate.update("DELETE FROM outbox;", new HashMap<>());
+        String sql = """
+                INSERT INTO outbox
+                SELECT :id, 'test';
+                """;
+        for (int i = 0; i < 6; i++) {
+            jdbcTemplate.update(sql, Collections.singletonMap("id", "partition_" + i));
+        }
+    }
+
+    @Test
+    public void testAllPartitionsDrained() throws Exception {
+        Mockito.when(producer.sendAll(anyList())).thenAnswer(invocation ->
+                Collections.nCopies(((List<?>) invocation.getArgument(0)).size(), true));
+        Assertions.assertEquals(6, sender.pollAndSend());
+        Assertions.assertEquals(0, outboxCount());
+        Assertions.assertEquals(2, registry.find("outbox.partition.lag").gauges().size());
+    }
+
+    @Test
+    public void testFailedPartitionKeepsMessages() throws Exception {
+        Mockito.when(producer.sendAll(anyList())).thenAnswer(invocation ->
+                Collections.nCopies(((List<?>) invocation.getArgument(0)).size(), false));
+        Assertions.assertEquals(0, sender.pollAndSend());
+        Assertions.assertEquals(6, outboxCount());
+    }
+
+    @Test
+    public void testPartitionsDrainedByVirtualThreads() throws Exception {
+        Set<Boolean> virtual = ConcurrentHashMap.newKeySet();
+        Mockito.when(producer.sendAll(anyList())).thenAnswer(invocation -> {
+            virtual.add(Thread.currentThread().isVirtual());
+            return Collections.nCopies(((List<?>) invocation.getArgument(0)).size(), true);
+        });
+        Assertions.assertEquals(6, sender.pollAndSend());
+        Assertions.assertEquals(Set.of(true), virtual);
+        Assertions.assertEquals(0, registry.get("outbox.workers.active").gauge().value());
+    }
+
+    private int outboxCount() {
+        String sql = """
+                SELECT COUNT(*)
+                FROM outbox;
+                """;
+        return jdbcTemplate.queryForObject(sql, new HashMap<>(), Integer.class);
+    }
+
+}
@@ -18,7 +18,7 @@ import java.util.HashMap;
 
 import static org.mockito.ArgumentMatchers.anyString;
 
-@SpringBootTest
+@SpringBootTest(properties = {"app.schedule.fixedDelay=60000", "app.schedule.initialDelay=60000"})
 @DirtiesContext
 public class ScheduleMessageSenderTest extends AbstractContainer {
 
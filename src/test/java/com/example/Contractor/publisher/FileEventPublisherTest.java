@@ -0,0 +1,43 @@
+package com.example.Contractor.publisher;
+
+import com.example.Contractor.DTO.OutboxMessage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class FileEventPublisherTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void testRecordsAppended() throws Exception {
+        Path file = directory.resolve("events.bin");
+        FileEventPublisher publisher = new FileEventPublisher(file.toString());
+        Assertions.assertTrue(publisher.send("first"));
+        OutboxMessage compressed = new OutboxMessage("2", null);
+        compressed.setCompressedPayload(new byte[]{1, 2, 3});
+        compressed.setContentEncoding("lz4-block");
+        Assertions.assertEquals(List.of(true), publisher.sendAll(List.of(compressed)));
+        publisher.close();
+
+        ByteBuffer records = ByteBuffer.wrap(Files.readAllBytes(file));
+        Assertions.assertEquals(0, records.getInt());
+        byte[] first = new byte[records.getInt()];
+        records.get(first);
+        Assertions.assertEquals("first", new String(first, StandardCharsets.UTF_8));
+        byte[] encoding = new byte[records.getInt()];
+        records.get(encoding);
+        Assertions.assertEquals("lz4-block", new String(encoding, StandardCharsets.UTF_8));
+        Assertions.assertEquals(3, records.getInt());
+        records.position(records.position() + 3);
+        Assertions.assertFalse(records.hasRemaining());
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.example.Contractor.publisher;
+
+import com.example.Contractor.DTO.OutboxMessage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class InMemoryEventPublisherTest {
+
+    @Test
+    public void testOldestEventsDropped() {
+        InMemoryEventPublisher publisher = new InMemoryEventPublisher(2);
+        Assertions.assertEquals(List.of(true, true, true), publisher.sendAll(List.of(
+                new OutboxMessage("1", "first"), new OutboxMessage("2", "second"), new OutboxMessage("3", "third"))));
+        Assertions.assertEquals(3, publisher.size());
+        Assertions.assertEquals(List.of("2", "3"), publisher.getPublished().stream()
+                .map(InMemoryEventPublisher.PublishedEvent::getId)
+                .toList());
+        publisher.clear();
+        Assertions.assertEquals(0, publisher.size());
+        Assertions.assertTrue(publisher.getPublished().isEmpty());
+    }
+
+}
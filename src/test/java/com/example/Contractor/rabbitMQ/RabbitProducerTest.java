@@ -1,13 +1,17 @@
 package com.example.Contractor.rabbitMQ;
 
 import com.example.Contractor.AbstractContainer;
+import com.example.Contractor.DTO.OutboxMessage;
 import com.example.Contractor.config.TestConfig;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 
+import java.util.List;
+
 @SpringBootTest
 @Import(TestConfig.class)
 public class RabbitProducerTest extends AbstractContainer {
@@ -18,6 +22,9 @@ public class RabbitProducerTest extends AbstractContainer {
     @Autowired
     private RabbitConsumer consumer;
 
+    @Autowired
+    private MeterRegistry registry;
+
     @Test
     public void testSend() throws Exception {
         String message = "test";
@@ -25,4 +32,22 @@ public class RabbitProducerTest extends AbstractContainer {
         Assertions.assertEquals(message, RabbitConsumer.getReceivedMessage());
     }
 
+    @Test
+    public void testSendAll() throws Exception {
+        List<Boolean> confirms = producer.sendAll(List.of(
+                new OutboxMessage("1", "first"),
+                new OutboxMessage("2", "second"),
+                new OutboxMessage("3", "third")));
+        Assertions.assertEquals(List.of(true, true, true), confirms);
+    }
+
+    @Test
+    public void testChannelReused() throws Exception {
+        Assertions.assertTrue(producer.send("first"));
+        double opened = registry.get("rabbit.producer.channels.open").gauge().value();
+        Assertions.assertTrue(producer.send("second"));
+        Assertions.assertEquals(opened, registry.get("rabbit.producer.channels.open").gauge().value());
+        Assertions.assertEquals(opened, registry.get("rabbit.producer.channels.idle").gauge().value());
+    }
+
 }
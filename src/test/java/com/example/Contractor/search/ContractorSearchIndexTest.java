@@ -0,0 +1,175 @@
+package com.example.Contractor.search;
+
+import com.example.Contractor.AbstractContainer;
+import com.example.Contractor.Controller.ContractorController;
+import com.example.Contractor.Controller.ContractorControllerImpl;
+import com.example.Contractor.DTO.Contractor;
+import com.example.Contractor.DTO.ContractorSearch;
+import com.example.Contractor.DTO.SearchMode;
+import com.example.Contractor.Repository.ContractorRepository;
+import com.example.Contractor.Service.Cached.ContractorCachedService;
+import com.example.Contractor.Service.ContractorService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest(properties = {"app.contractor.search.index.enabled=true"})
+@DirtiesContext
+public class ContractorSearchIndexTest extends AbstractContainer {
+
+    @Autowired
+    private ContractorSearchIndex index;
+
+    @Autowired
+    private ContractorService service;
+
+    @Autowired
+    private ContractorRepository repository;
+
+    @Autowired
+    private ContractorController controller;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        jdbcTemplate.update("""
+        INSERT INTO contractor (id, name, name_full, inn, country, industry, org_form)
+        VALUES ('idx1', 'Индекс Альфа', 'ООО Индекс Альфа', '7701000001', 'ABH', 1, 1),
+        ('idx2', 'Индекс Бета', null, '7701000002', 'ABH', 2, 1),
+        ('idx3', 'Другое', 'Индексы', null, 'ABH', 1, 1)
+        """);
+        index.load();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        jdbcTemplate.update("DELETE FROM contractor WHERE id LIKE 'idx%'");
+    }
+
+    @Test
+    public void testSameResultsAsRepository() {
+        Assertions.assertTrue(index.isReady());
+        for (ContractorSearch search : List.of(
+                new ContractorSearch(null, null, "индекс", null, null, null),
+                new ContractorSearch(null, null, "7701000002", null, null, null),
+                new ContractorSearch(null, null, "индекс", null, 1, null),
+                new ContractorSearch("IDX2", null, "индекс", null, null, null))) {
+            Assertions.assertTrue(index.canServe(search));
+            Assertions.assertEquals(ids(repository.search(search, 0, 10)), ids(index.search(search, 0, 10)));
+        }
+        Assertions.assertFalse(index.canServe(new ContractorSearch("IDX2", null, null, null, null, null)));
+        Assertions.assertFalse(index.canServe(new ContractorSearch(null, null, "ль", null, null, null)));
+        Assertions.assertEquals(List.of("idx2"),
+                ids(index.search(new ContractorSearch(null, null, "индекс", null, null, null), 1, 1)));
+        Assertions.assertFalse(index.canServe(new ContractorSearch(null, null, null, "абхазия", null, null)));
+    }
+
+    @Test
+    public void testUpdatedOnSaveAndDelete() {
+        ContractorSearch search = new ContractorSearch(null, null, "гамма", null, null, null);
+        Assertions.assertTrue(index.search(search, 0, 10).isEmpty());
+
+        Contractor contractor = new Contractor();
+        contractor.setId("idx4");
+        contractor.setName("Индекс Гамма");
+        contractor.setCountry("ABH");
+        contractor.setIndustry(1);
+        contractor.setOrgForm(1);
+        service.save(contractor);
+        Assertions.assertEquals(List.of("idx4"), ids(index.search(search, 0, 10)));
+
+        contractor.setName("Индекс Дельта");
+        service.save(contractor);
+        Assertions.assertTrue(index.search(search, 0, 10).isEmpty());
+
+        service.delete("idx4");
+        Assertions.assertTrue(index.search(new ContractorSearch(null, null, "дельта", null, null, null), 0, 10).isEmpty());
+    }
+
+    @Test
+    public void testPagesFollowDatabaseOrder() {
+        String[] names = {"order", "Order", "ORDER", "ёлка", "Елка", "елка", "яблоко", "Яблоко", "apple", "Zeta", "zeta", "Ärger"};
+        for (int i = 0; i < names.length; i++) {
+            jdbcTemplate.update("INSERT INTO contractor (id, name, name_full, country, industry, org_form) VALUES (?, ?, 'Порядок', 'ABH', 1, 1)",
+                    "idxo" + i, names[i]);
+        }
+        index.load();
+        Contractor saved = new Contractor();
+        saved.setId("idxo_saved");
+        saved.setName("Ёлочка");
+        saved.setNameFull("Порядок");
+        saved.setCountry("ABH");
+        saved.setIndustry(1);
+        saved.setOrgForm(1);
+        service.save(saved);
+        service.saveBatch(List.of(orderContractor("idxo_b2", "zz"), orderContractor("idxo_b1", "AA")));
+
+        ContractorSearch search = new ContractorSearch(null, null, "порядок", null, null, null);
+        Assertions.assertTrue(index.canServe(search));
+        List<String> expected = ids(repository.search(search, 0, 100));
+        Assertions.assertEquals(names.length + 3, expected.size());
+
+        List<String> byPages = new ArrayList<>();
+        for (int page = 0; page * 3 < expected.size(); page++) {
+            byPages.addAll(ids(body(controller.search(search, page, 3, null, SearchMode.CONTAINS, false))));
+        }
+        Assertions.assertEquals(expected, byPages);
+
+        List<String> byCursor = new ArrayList<>();
+        String cursor = null;
+        do {
+            ResponseEntity<?> response = controller.search(search, 0, 3, cursor, SearchMode.CONTAINS, false);
+            byCursor.addAll(ids(body(response)));
+            cursor = response.getHeaders().getFirst(ContractorControllerImpl.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+        Assertions.assertEquals(expected, byCursor);
+    }
+
+    @Test
+    public void testRefreshedOnChangeOfOtherInstance() throws Exception {
+        jdbcTemplate.update("UPDATE contractor SET name = 'Индекс Омега' WHERE id = 'idx2'");
+        index.onMessage(new DefaultMessage(ContractorCachedService.EVICT_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "idx2".getBytes(StandardCharsets.UTF_8)), null);
+        ContractorSearch search = new ContractorSearch(null, null, "омега", null, null, null);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline && index.search(search, 0, 10).isEmpty()) {
+            Thread.sleep(50);
+        }
+        Assertions.assertEquals(List.of("idx2"), ids(index.search(search, 0, 10)));
+        Assertions.assertTrue(index.search(new ContractorSearch(null, null, "бета", null, null, null), 0, 10).isEmpty());
+    }
+
+    private Contractor orderContractor(String id, String name) {
+        Contractor contractor = new Contractor();
+        contractor.setId(id);
+        contractor.setName(name);
+        contractor.setNameFull("Порядок");
+        contractor.setCountry("ABH");
+        contractor.setIndustry(1);
+        contractor.setOrgForm(1);
+        return contractor;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Contractor> body(ResponseEntity<?> response) {
+        return response.getBody() == null ? List.of() : (List<Contractor>) response.getBody();
+    }
+
+    private List<String> ids(List<Contractor> contractors) {
+        return contractors.stream().map(Contractor::getId).toList();
+    }
+
+}
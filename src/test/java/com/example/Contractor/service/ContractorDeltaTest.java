@@ -0,0 +1,81 @@
+package com.example.Contractor.service;
+
+import com.example.Contractor.AbstractContainer;
+import com.example.Contractor.DTO.Contractor;
+import com.example.Contractor.Service.ContractorService;
+import com.example.Contractor.rabbitMQ.RabbitProducer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+@SpringBootTest(properties = {"app.outbox.mode=LOG", "app.contractor.events=DELTA",
+        "app.schedule.fixedDelay=60000", "app.schedule.initialDelay=60000"})
+@DirtiesContext
+public class ContractorDeltaTest extends AbstractContainer {
+
+    @Autowired
+    private ContractorService service;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private RabbitProducer producer;
+
+    @AfterEach
+    public void cleanup() {
+        jdbcTemplate.update("DELETE FROM contractor WHERE id = 'delta';", new HashMap<>());
+    }
+
+    @Test
+    public void testDeltaHoldsChangedFields() throws Exception {
+        Contractor contractor = getTestContractor();
+        service.save(contractor);
+        contractor.setName("deltaNameUpdated");
+        service.save(contractor);
+        service.save(contractor);
+
+        List<String> events = jdbcTemplate.queryForList("""
+                SELECT payload
+                FROM outbox_log
+                WHERE id = :id
+                ORDER BY log_offset;
+                """, Collections.singletonMap("id", contractor.getId()), String.class);
+        Assertions.assertEquals(2, events.size());
+
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode created = mapper.readTree(events.get(0));
+        Assertions.assertTrue(created.get("oldVersion").isNull());
+        Assertions.assertEquals(0, created.get("version").asLong());
+        Assertions.assertEquals("deltaName", created.get("changes").get("name").asText());
+
+        JsonNode updated = mapper.readTree(events.get(1));
+        Assertions.assertEquals(contractor.getId(), updated.get("id").asText());
+        Assertions.assertEquals(0, updated.get("oldVersion").asLong());
+        Assertions.assertEquals(1, updated.get("version").asLong());
+        Assertions.assertEquals(1, updated.get("changes").size());
+        Assertions.assertEquals("deltaNameUpdated", updated.get("changes").get("name").asText());
+    }
+
+    private Contractor getTestContractor() {
+        Contractor contractor = new Contractor();
+        contractor.setId("delta");
+        contractor.setName("deltaName");
+        contractor.setCountry("ABH");
+        contractor.setIndustry(1);
+        contractor.setOrgForm(1);
+        return contractor;
+    }
+
+}